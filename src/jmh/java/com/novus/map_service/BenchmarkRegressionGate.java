@@ -0,0 +1,105 @@
+package com.novus.map_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class BenchmarkRegressionGate {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkRegressionGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: BenchmarkRegressionGate <result.json> <baseline.json> <maxRegression>");
+        }
+
+        Path resultFile = Path.of(args[0]);
+        Path baselineFile = Path.of(args[1]);
+        double maxRegression = Double.parseDouble(args[2]);
+
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No benchmark baseline at " + baselineFile + ". Record one by copying " + resultFile
+                    + " from a run on the reference machine, or pass -Djmh.skipRegressionCheck=true");
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Score> baseline = scores(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, Score> current = scores(objectMapper.readTree(resultFile.toFile()));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : new TreeMap<>(current).entrySet()) {
+            Score previous = baseline.get(entry.getKey());
+            if (previous == null || previous.value() == 0) {
+                System.out.printf("%-90s no baseline%n", entry.getKey());
+                continue;
+            }
+
+            Score score = entry.getValue();
+            double change = (score.value() - previous.value()) / previous.value();
+            double regression = score.higherIsBetter() ? -change : change;
+            String line = String.format("%-90s %12.3f -> %12.3f %s (%+.1f%%)",
+                    entry.getKey(), previous.value(), score.value(), score.unit(), change * 100);
+            System.out.println(line);
+            if (regression > maxRegression) {
+                regressions.add(line);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), maxRegression * 100);
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> scores(JsonNode results) {
+        Map<String, Score> scores = new HashMap<>();
+        for (JsonNode result : results) {
+            String key = result.get("benchmark").asText() + params(result.get("params")) + " [" + result.get("mode").asText() + "]";
+            JsonNode primaryMetric = result.get("primaryMetric");
+            String unit = primaryMetric.get("scoreUnit").asText();
+            scores.put(key, new Score(primaryMetric.get("score").asDouble(), unit, unit.startsWith("ops/")));
+
+            JsonNode secondaryMetrics = result.get("secondaryMetrics");
+            if (secondaryMetrics == null) {
+                continue;
+            }
+            Iterator<Map.Entry<String, JsonNode>> metrics = secondaryMetrics.fields();
+            while (metrics.hasNext()) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    scores.put(key + " " + ALLOCATION_METRIC, new Score(metric.getValue().get("score").asDouble(),
+                            metric.getValue().get("scoreUnit").asText(), false));
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params == null || params.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        params.fields().forEachRemaining(param ->
+                builder.append(builder.isEmpty() ? "(" : ", ").append(param.getKey()).append('=').append(param.getValue().asText()));
+        return builder.append(')').toString();
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.novus.map_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsumerBenchmark {
+
+    @Param({
+            "getMapAdminDashboardData",
+            "saveNewAlert",
+            "getAllAlertsByPosition",
+            "getAllAlertsByRoute",
+            "validateUserAlert",
+            "invalidateUserAlert",
+            "getUserFavoriteLocations",
+            "getNearestFavoriteLocations",
+            "saveNewUserFavoriteLocation",
+            "deleteUserFavoriteLocation",
+            "updateUserFavoriteLocation",
+            "saveUserRoute",
+            "getUserRouteHistory",
+            "saveNewRouteRecalculation",
+            "updateUserNavigationPreferences",
+            "getNearbyUsers",
+            "updateUserPosition",
+            "shareLocation",
+            "shareRoute"
+    })
+    private String operationKey;
+
+    private MapServiceFixture fixture;
+    private Consumer consumer;
+    private ObjectMapper objectMapper;
+    private String payload;
+    private boolean restoreDeletedLocation;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixture = new MapServiceFixture();
+        consumer = fixture.getConsumer();
+        objectMapper = fixture.getObjectMapper();
+        payload = fixture.payload(operationKey);
+        restoreDeletedLocation = "deleteUserFavoriteLocation".equals(operationKey);
+    }
+
+    @Benchmark
+    public KafkaMessage deserialize() throws IOException {
+        return objectMapper.readValue(payload, KafkaMessage.class);
+    }
+
+    @Benchmark
+    public void dispatch() throws IOException {
+        consumer.processMessage(operationKey, objectMapper.readValue(payload, KafkaMessage.class));
+        if (restoreDeletedLocation) {
+            fixture.restoreFavoriteLocation();
+        }
+    }
+
+}
@@ -0,0 +1,322 @@
+package com.novus.map_service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.novus.map_service.archive.AlertArchiveScanner;
+import com.novus.map_service.changelog.ChangelogRestorer;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.FavoriteLocationCache;
+import com.novus.map_service.dao.InMemoryAdminDashboardDaoUtils;
+import com.novus.map_service.dao.InMemoryAlertDaoUtils;
+import com.novus.map_service.dao.InMemoryErrorTraceDaoUtils;
+import com.novus.map_service.dao.InMemoryLocationDaoUtils;
+import com.novus.map_service.dao.InMemoryRouteDaoUtils;
+import com.novus.map_service.dao.InMemoryUserDaoUtils;
+import com.novus.map_service.dao.LogDaoUtils;
+import com.novus.map_service.dao.MongoOperationCounter;
+import com.novus.map_service.dao.UnitOfWorkManager;
+import com.novus.map_service.dao.UserCache;
+import com.novus.map_service.geo.AlertIndex;
+import com.novus.map_service.geo.AlertIndexSnapshot;
+import com.novus.map_service.geo.FavoriteLocationIndex;
+import com.novus.map_service.geo.NearestFavoriteLocator;
+import com.novus.map_service.geo.ProximityAlertEngine;
+import com.novus.map_service.geo.RegionOwnership;
+import com.novus.map_service.geo.RegionRebalanceListener;
+import com.novus.map_service.geo.UserPositionStore;
+import com.novus.map_service.services.AdminDashboardService;
+import com.novus.map_service.services.AlertService;
+import com.novus.map_service.services.LocationService;
+import com.novus.map_service.services.RouteService;
+import com.novus.map_service.services.SharingService;
+import com.novus.map_service.services.UserNavigationService;
+import com.novus.map_service.utils.AsyncLogWriter;
+import com.novus.map_service.utils.ErrorFingerprinter;
+import com.novus.map_service.utils.InMemoryLogSink;
+import com.novus.map_service.utils.LogRollupCounter;
+import com.novus.map_service.utils.LogSampler;
+import com.novus.map_service.utils.LogUtils;
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.AdminDashboard.AdminDashboard;
+import com.novus.shared_models.common.Alert.Alert;
+import com.novus.shared_models.common.Alert.AlertType;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import com.novus.shared_models.common.Location.Location;
+import com.novus.shared_models.common.Location.LocationType;
+import com.novus.shared_models.common.Route.Route;
+import com.novus.shared_models.common.User.TransportMode;
+import com.novus.shared_models.common.User.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class MapServiceFixture {
+
+    public static final String USER_ID = "bench-user";
+    public static final String ALERT_OWNER_ID = "bench-alert-owner";
+    public static final String ALERT_ID = "bench-alert";
+    public static final String LOCATION_ID = "bench-location-1";
+
+    private static final String MESSAGES_RESOURCE = "/benchmark/kafka-messages.json";
+    private static final int SEEDED_ROUTES = 60;
+    private static final int SEEDED_ALERTS = 500;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final MongoOperationCounter operationCounter = new MongoOperationCounter();
+    private final InMemoryLogSink logSink = new InMemoryLogSink();
+    private final Map<String, String> payloadsByOperation = new LinkedHashMap<>();
+
+    private final InMemoryUserDaoUtils userDaoUtils;
+    private final InMemoryAlertDaoUtils alertDaoUtils;
+    private final InMemoryLocationDaoUtils locationDaoUtils;
+    private final InMemoryRouteDaoUtils routeDaoUtils;
+    private final UserPositionStore userPositionStore;
+    private final ProximityAlertEngine proximityAlertEngine;
+    private final RegionRebalanceListener regionRebalanceListener;
+    private final Consumer consumer;
+
+    public MapServiceFixture() {
+        EnvConfiguration envConfiguration = new EnvConfiguration();
+        envConfiguration.setLogSinks(List.of(logSink.name()));
+        DateConfiguration dateConfiguration = new DateConfiguration();
+        UuidProvider uuidProvider = new UuidProvider();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+        UnitOfWorkManager unitOfWorkManager = new UnitOfWorkManager(mongoTemplate, envConfiguration, meterRegistry);
+
+        JsonNode fixture = readFixture();
+
+        this.userDaoUtils = new InMemoryUserDaoUtils(mongoTemplate, unitOfWorkManager, dateConfiguration, operationCounter);
+        this.alertDaoUtils = new InMemoryAlertDaoUtils(mongoTemplate, unitOfWorkManager, operationCounter);
+        this.locationDaoUtils = new InMemoryLocationDaoUtils(mongoTemplate, unitOfWorkManager, operationCounter);
+        this.routeDaoUtils = new InMemoryRouteDaoUtils(mongoTemplate, unitOfWorkManager, operationCounter);
+        InMemoryAdminDashboardDaoUtils adminDashboardDaoUtils = new InMemoryAdminDashboardDaoUtils(
+                mongoTemplate, unitOfWorkManager, operationCounter, convert(fixture.get("adminDashboard"), AdminDashboard.class));
+
+        LogUtils logUtils = new LogUtils(
+                uuidProvider,
+                new AsyncLogWriter(List.of(logSink), envConfiguration, meterRegistry),
+                dateConfiguration,
+                new ErrorFingerprinter(new InMemoryErrorTraceDaoUtils(mongoTemplate, operationCounter), dateConfiguration, envConfiguration),
+                new LogSampler(envConfiguration),
+                new LogRollupCounter(new LogDaoUtils(mongoTemplate, envConfiguration)),
+                unitOfWorkManager
+        );
+
+        RegionOwnership regionOwnership = new RegionOwnership(envConfiguration);
+        StateChangelog stateChangelog = new StateChangelog(replyKafkaTemplate(), regionOwnership, objectMapper, envConfiguration);
+        this.userPositionStore = new UserPositionStore(stateChangelog, envConfiguration);
+        AlertIndex alertIndex = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+        this.proximityAlertEngine = new ProximityAlertEngine(alertIndex,
+                new AlertIndexSnapshot(alertIndex, dateConfiguration, envConfiguration), userPositionStore, alertDaoUtils,
+                dateConfiguration, event -> { }, regionOwnership, envConfiguration);
+        this.regionRebalanceListener = new RegionRebalanceListener(regionOwnership, proximityAlertEngine, userPositionStore,
+                new ChangelogRestorer(alertIndex, userPositionStore, stateChangelog, regionOwnership, objectMapper,
+                        envConfiguration));
+        FavoriteLocationCache favoriteLocationCache = new FavoriteLocationCache(locationDaoUtils, envConfiguration);
+        FavoriteLocationIndex favoriteLocationIndex = new FavoriteLocationIndex(favoriteLocationCache, userPositionStore,
+                event -> { }, envConfiguration);
+        NearestFavoriteLocator nearestFavoriteLocator = new NearestFavoriteLocator(favoriteLocationCache, envConfiguration);
+        UserCache userCache = new UserCache(userDaoUtils, objectMapper, envConfiguration);
+
+        this.consumer = new Consumer(
+                objectMapper,
+                new AdminDashboardService(logUtils, userDaoUtils, dateConfiguration, adminDashboardDaoUtils),
+                new AlertService(logUtils, alertDaoUtils, uuidProvider, userDaoUtils, dateConfiguration,
+                        adminDashboardDaoUtils, proximityAlertEngine, routeDaoUtils, envConfiguration, userCache,
+                        new AlertArchiveScanner(objectMapper, envConfiguration), unitOfWorkManager),
+                new LocationService(logUtils, locationDaoUtils, userDaoUtils, uuidProvider, dateConfiguration,
+                        favoriteLocationIndex, favoriteLocationCache, nearestFavoriteLocator, envConfiguration, unitOfWorkManager),
+                new RouteService(logUtils, routeDaoUtils, userDaoUtils, uuidProvider, dateConfiguration,
+                        adminDashboardDaoUtils, envConfiguration),
+                new UserNavigationService(logUtils, userDaoUtils, dateConfiguration, envConfiguration, userPositionStore,
+                        proximityAlertEngine, favoriteLocationIndex, unitOfWorkManager),
+                new SharingService(logUtils, userDaoUtils, dateConfiguration),
+                unitOfWorkManager,
+                new ReplyPublisher(replyKafkaTemplate(), objectMapper, envConfiguration),
+                userCache,
+                logUtils
+        );
+
+        seed(fixture, dateConfiguration);
+        buildPayloads(fixture);
+        operationCounter.reset();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaTemplate<String, byte[]> replyKafkaTemplate() {
+        KafkaTemplate<String, byte[]> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        Mockito.when(kafkaTemplate.send(Mockito.<ProducerRecord<String, byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        return kafkaTemplate;
+    }
+
+    public Consumer getConsumer() {
+        return consumer;
+    }
+
+    public RegionRebalanceListener getRegionRebalanceListener() {
+        return regionRebalanceListener;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public MongoOperationCounter getOperationCounter() {
+        return operationCounter;
+    }
+
+    public InMemoryLogSink getLogSink() {
+        return logSink;
+    }
+
+    public Set<String> getOperationKeys() {
+        return payloadsByOperation.keySet();
+    }
+
+    public String payload(String operationKey) {
+        String payload = payloadsByOperation.get(operationKey);
+        if (payload == null) {
+            throw new IllegalArgumentException("No benchmark payload for operation " + operationKey);
+        }
+        return payload;
+    }
+
+    public KafkaMessage message(String operationKey) {
+        try {
+            return objectMapper.readValue(payload(operationKey), KafkaMessage.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void restoreFavoriteLocation() {
+        locationDaoUtils.save(location(LOCATION_ID, 48.8584, 2.2945, new Date()));
+    }
+
+    private void seed(JsonNode fixture, DateConfiguration dateConfiguration) {
+        Date now = dateConfiguration.newDate();
+
+        userDaoUtils.save(convert(fixture.get("user"), User.class));
+        userDaoUtils.save(convert(fixture.get("alertOwner"), User.class));
+
+        for (int i = 1; i <= 4; i++) {
+            locationDaoUtils.save(location("bench-location-" + i, 48.85 + i * 0.004, 2.34 + i * 0.006, now));
+        }
+
+        AlertType[] alertTypes = AlertType.values();
+        for (int i = 0; i < SEEDED_ALERTS; i++) {
+            String alertId = i == 0 ? ALERT_ID : "bench-alert-" + i;
+            Alert alert = Alert.builder()
+                    .id(alertId)
+                    .type(alertTypes[i % alertTypes.length])
+                    .description("Benchmark alert")
+                    .location(GeoPoint.builder()
+                            .latitude(48.80 + (i % 25) * 0.005)
+                            .longitude(2.25 + (i / 25) * 0.008)
+                            .build())
+                    .reportedByUserId(ALERT_OWNER_ID)
+                    .expiresAt(new Date(now.getTime() + 24 * 60 * 60 * 1000L))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            alertDaoUtils.save(alert);
+        }
+        proximityAlertEngine.loadActiveAlerts();
+
+        for (int i = 0; i < SEEDED_ROUTES; i++) {
+            routeDaoUtils.save(Route.builder()
+                    .id("bench-route-" + i)
+                    .userId(USER_ID)
+                    .startAddress("Gare de Lyon, Paris")
+                    .endAddress("La Defense, Puteaux")
+                    .startPoint(GeoPoint.builder().latitude(48.8443).longitude(2.3744).build())
+                    .endPoint(GeoPoint.builder().latitude(48.8918).longitude(2.2380).build())
+                    .kilometersDistance(12.4)
+                    .estimatedDurationInSeconds(1680)
+                    .createdAt(new Date(now.getTime() - i * 3_600_000L))
+                    .build());
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            userPositionStore.update("bench-nearby-" + i, 48.80 + (i % 50) * 0.0025, 2.30 + (i / 50) * 0.0025, i % 3 != 0);
+        }
+        userPositionStore.update(USER_ID, 48.8566, 2.3522, true);
+    }
+
+    private void buildPayloads(JsonNode fixture) {
+        Iterator<Map.Entry<String, JsonNode>> messages = fixture.get("messages").fields();
+        while (messages.hasNext()) {
+            Map.Entry<String, JsonNode> message = messages.next();
+            ObjectNode kafkaMessage = objectMapper.createObjectNode();
+            kafkaMessage.set("authenticatedUser", fixture.get("user"));
+            kafkaMessage.set("request", message.getValue());
+            kafkaMessage.put("ipAddress", "10.12.4.87");
+            try {
+                payloadsByOperation.put(message.getKey(), objectMapper.writeValueAsString(kafkaMessage));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private JsonNode readFixture() {
+        try (InputStream inputStream = MapServiceFixture.class.getResourceAsStream(MESSAGES_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing benchmark resource " + MESSAGES_RESOURCE);
+            }
+            String json = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)
+                    .replace("{{USER_ID}}", USER_ID)
+                    .replace("{{ALERT_OWNER_ID}}", ALERT_OWNER_ID)
+                    .replace("{{ALERT_ID}}", ALERT_ID)
+                    .replace("{{LOCATION_ID}}", LOCATION_ID)
+                    .replace("{{LOCATION_TYPE}}", LocationType.values()[0].name())
+                    .replace("{{TRANSPORT_MODE}}", TransportMode.values()[0].name());
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T convert(JsonNode node, Class<T> type) {
+        return objectMapper.convertValue(node, type);
+    }
+
+    private static Location location(String id, double latitude, double longitude, Date now) {
+        return Location.builder()
+                .id(id)
+                .name("Favorite " + id)
+                .locationType(LocationType.values()[0])
+                .city("Paris")
+                .country("France")
+                .coordinates(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+                .userId(USER_ID)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.novus.map_service;
+
+import org.bson.types.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidProviderBenchmark {
+
+    private final UuidProvider uuidProvider = new UuidProvider();
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String timeOrderedUuid() {
+        return uuidProvider.generateUuid();
+    }
+
+    @Benchmark
+    public Binary timeOrderedBinaryUuid() {
+        return uuidProvider.generateBinaryUuid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedUuidContended() {
+        return uuidProvider.generateUuid();
+    }
+
+}
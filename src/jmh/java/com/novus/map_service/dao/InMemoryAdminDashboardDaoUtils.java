@@ -0,0 +1,45 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.AdminDashboard.AdminDashboard;
+import com.novus.shared_models.response.Map.HourlyRouteRecalculationResponse;
+import com.novus.shared_models.response.User.MonthlyUserStatsResponse;
+import com.novus.shared_models.response.User.UserActivityMetricsResponse;
+import com.novus.shared_models.response.User.UserContributionResponse;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryAdminDashboardDaoUtils extends AdminDashboardDaoUtils {
+
+    private final MongoOperationCounter operationCounter;
+    private volatile AdminDashboard adminDashboard;
+
+    public InMemoryAdminDashboardDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                                          MongoOperationCounter operationCounter, AdminDashboard adminDashboard) {
+        super(mongoTemplate, unitOfWorkManager);
+        this.operationCounter = operationCounter;
+        this.adminDashboard = adminDashboard;
+    }
+
+    @Override
+    public void save(String adminDashboardId, Map<Integer, Double> appRatingByNumberOfRate,
+                     List<UserContributionResponse> topContributors, List<MonthlyUserStatsResponse> userGrowthStats,
+                     UserActivityMetricsResponse userActivityMetrics, List<HourlyRouteRecalculationResponse> routeRecalculations,
+                     Double incidentConfirmationRate, Map<String, Integer> incidentsByType, int totalRoutesProposed
+    ) {
+        operationCounter.write();
+        adminDashboard.setIncidentsByType(incidentsByType);
+        adminDashboard.setRouteRecalculations(routeRecalculations);
+        adminDashboard.setIncidentConfirmationRate(incidentConfirmationRate);
+        adminDashboard.setTotalRoutesProposed(totalRoutesProposed);
+    }
+
+    @Override
+    public Optional<AdminDashboard> find() {
+        operationCounter.read();
+        return Optional.ofNullable(adminDashboard);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Alert.Alert;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryAlertDaoUtils extends AlertDaoUtils {
+
+    private final Map<String, Alert> alertsById = new ConcurrentHashMap<>();
+    private final Map<String, AlertVotes> votesById = new ConcurrentHashMap<>();
+    private final MongoOperationCounter operationCounter;
+
+    public InMemoryAlertDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                                 MongoOperationCounter operationCounter) {
+        super(mongoTemplate, unitOfWorkManager);
+        this.operationCounter = operationCounter;
+    }
+
+    @Override
+    public void save(Alert alert) {
+        operationCounter.write();
+        alertsById.put(alert.getId(), alert);
+    }
+
+    @Override
+    public void recordVote(Alert alert, boolean confirmed) {
+        operationCounter.write();
+        alertsById.put(alert.getId(), alert);
+        votesById.merge(alert.getId(), confirmed ? new AlertVotes(1, 0) : new AlertVotes(0, 1),
+                (previous, vote) -> new AlertVotes(previous.confirmations() + vote.confirmations(),
+                        previous.rejections() + vote.rejections()));
+    }
+
+    @Override
+    public Map<String, AlertVotes> findVotes(Collection<String> alertIds) {
+        operationCounter.read();
+        Map<String, AlertVotes> votes = new HashMap<>();
+        for (String alertId : alertIds) {
+            AlertVotes alertVotes = votesById.get(alertId);
+            if (alertVotes != null) {
+                votes.put(alertId, alertVotes);
+            }
+        }
+        return votes;
+    }
+
+    @Override
+    public Optional<Alert> findById(String id) {
+        operationCounter.read();
+        return Optional.ofNullable(alertsById.get(id));
+    }
+
+    @Override
+    public List<Alert> findAllActive(Date now) {
+        operationCounter.read();
+        return alertsById.values().stream()
+                .filter(alert -> alert.getExpiresAt() != null && alert.getExpiresAt().after(now))
+                .toList();
+    }
+
+    @Override
+    public List<Alert> findActiveWithin(Date now, double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude) {
+        operationCounter.read();
+        return alertsById.values().stream()
+                .filter(alert -> alert.getExpiresAt() != null && alert.getExpiresAt().after(now))
+                .filter(alert -> alert.getLocation().getLatitude() >= minLatitude && alert.getLocation().getLatitude() <= maxLatitude)
+                .filter(alert -> alert.getLocation().getLongitude() >= minLongitude && alert.getLocation().getLongitude() <= maxLongitude)
+                .toList();
+    }
+
+    @Override
+    public List<Alert> findAllUpdatedSince(Date since) {
+        operationCounter.read();
+        return alertsById.values().stream()
+                .filter(alert -> alert.getUpdatedAt() != null && !alert.getUpdatedAt().before(since))
+                .toList();
+    }
+
+    @Override
+    public List<Alert> findExpiredBefore(Date cutoff, int limit) {
+        operationCounter.read();
+        return alertsById.values().stream()
+                .filter(alert -> alert.getExpiresAt() != null && alert.getExpiresAt().before(cutoff))
+                .sorted(Comparator.comparing(Alert::getExpiresAt))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long deleteExpiredByIds(Collection<String> ids, Date cutoff) {
+        operationCounter.write();
+        long deleted = 0;
+        for (String id : ids) {
+            Alert alert = alertsById.get(id);
+            if (alert != null && alert.getExpiresAt().before(cutoff) && alertsById.remove(id, alert)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.novus.map_service.dao;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+
+public class InMemoryErrorTraceDaoUtils extends ErrorTraceDaoUtils {
+
+    private final MongoOperationCounter operationCounter;
+
+    public InMemoryErrorTraceDaoUtils(MongoTemplate mongoTemplate, MongoOperationCounter operationCounter) {
+        super(mongoTemplate);
+        this.operationCounter = operationCounter;
+    }
+
+    @Override
+    public void upsertTrace(String fingerprint, String service, String exceptionType, String stackTrace,
+                            long occurrences, Date seenAt) {
+        operationCounter.write();
+    }
+
+    @Override
+    public void incrementOccurrences(String fingerprint, String service, String exceptionType, long occurrences,
+                                     Date seenAt) {
+        operationCounter.write();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Location.Location;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryLocationDaoUtils extends LocationDaoUtils {
+
+    private final Map<String, Location> locationsById = new ConcurrentHashMap<>();
+    private final MongoOperationCounter operationCounter;
+
+    public InMemoryLocationDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                                    MongoOperationCounter operationCounter) {
+        super(mongoTemplate, unitOfWorkManager);
+        this.operationCounter = operationCounter;
+    }
+
+    @Override
+    public void save(Location location) {
+        operationCounter.write();
+        locationsById.put(location.getId(), location);
+    }
+
+    @Override
+    public void delete(Location location) {
+        operationCounter.write();
+        locationsById.remove(location.getId());
+    }
+
+    @Override
+    public Optional<Location> findById(String locationId) {
+        operationCounter.read();
+        return Optional.ofNullable(locationsById.get(locationId));
+    }
+
+    @Override
+    public List<Location> findAllByIds(Collection<String> locationIds) {
+        operationCounter.read();
+        return locationIds.stream().map(locationsById::get).filter(Objects::nonNull).toList();
+    }
+
+}
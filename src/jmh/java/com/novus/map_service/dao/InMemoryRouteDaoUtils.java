@@ -0,0 +1,73 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Route.Route;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public class InMemoryRouteDaoUtils extends RouteDaoUtils {
+
+    private static final Comparator<Route> HISTORY_ORDER = Comparator.comparing(Route::getCreatedAt)
+            .thenComparing(Route::getId)
+            .reversed();
+
+    private final Map<String, Route> routesById = new ConcurrentHashMap<>();
+    private final MongoOperationCounter operationCounter;
+
+    public InMemoryRouteDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                                 MongoOperationCounter operationCounter) {
+        super(mongoTemplate, unitOfWorkManager);
+        this.operationCounter = operationCounter;
+    }
+
+    @Override
+    public void ensureIndexes() {
+    }
+
+    @Override
+    public void save(Route route) {
+        operationCounter.write();
+        routesById.put(route.getId(), route);
+    }
+
+    @Override
+    public Optional<Route> findById(String routeId) {
+        operationCounter.read();
+        return Optional.ofNullable(routesById.get(routeId));
+    }
+
+    @Override
+    public RouteHistoryPage findHistoryPage(String userId, RouteHistoryCursor after, int limit) {
+        operationCounter.read();
+        List<Route> routes = history(userId)
+                .filter(route -> after == null || route.getCreatedAt().before(after.createdAt())
+                        || route.getCreatedAt().equals(after.createdAt()) && route.getId().compareTo(after.routeId()) < 0)
+                .limit(limit + 1L)
+                .toList();
+
+        if (routes.size() <= limit) {
+            return new RouteHistoryPage(routes, null);
+        }
+
+        List<Route> page = routes.subList(0, limit);
+        return new RouteHistoryPage(page, RouteHistoryCursor.after(page.get(limit - 1)).encode());
+    }
+
+    @Override
+    public Stream<Route> streamHistory(String userId) {
+        operationCounter.read();
+        return history(userId);
+    }
+
+    private Stream<Route> history(String userId) {
+        return routesById.values().stream()
+                .filter(route -> userId.equals(route.getUserId()))
+                .sorted(HISTORY_ORDER);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.novus.map_service.dao;
+
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.shared_models.common.User.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryUserDaoUtils extends UserDaoUtils {
+
+    private final Map<String, User> usersById = new ConcurrentHashMap<>();
+    private final MongoOperationCounter operationCounter;
+
+    public InMemoryUserDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                                DateConfiguration dateConfiguration, MongoOperationCounter operationCounter) {
+        super(mongoTemplate, unitOfWorkManager, dateConfiguration);
+        this.operationCounter = operationCounter;
+    }
+
+    @Override
+    public void save(User user) {
+        operationCounter.write();
+        usersById.put(user.getId(), user);
+    }
+
+    @Override
+    public void update(User user, Update update, String... fields) {
+        operationCounter.write();
+        usersById.put(user.getId(), user);
+    }
+
+    @Override
+    public void refreshRank(String userId) {
+        operationCounter.write();
+        Optional.ofNullable(usersById.get(userId)).ifPresent(UserRanks::apply);
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        operationCounter.read();
+        return Optional.ofNullable(usersById.get(id));
+    }
+
+}
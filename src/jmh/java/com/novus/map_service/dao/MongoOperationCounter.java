@@ -0,0 +1,35 @@
+package com.novus.map_service.dao;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class MongoOperationCounter {
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    void read() {
+        reads.increment();
+    }
+
+    void write() {
+        writes.increment();
+    }
+
+    public long getReads() {
+        return reads.sum();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getTotal() {
+        return reads.sum() + writes.sum();
+    }
+
+    public void reset() {
+        reads.reset();
+        writes.reset();
+    }
+
+}
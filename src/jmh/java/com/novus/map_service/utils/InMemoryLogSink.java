@@ -0,0 +1,26 @@
+package com.novus.map_service.utils;
+
+import com.novus.shared_models.common.Log.Log;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InMemoryLogSink implements LogSink {
+
+    private final LongAdder writtenLogs = new LongAdder();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void write(List<Log> logs) {
+        writtenLogs.add(logs.size());
+    }
+
+    public long getWrittenLogs() {
+        return writtenLogs.sum();
+    }
+
+}
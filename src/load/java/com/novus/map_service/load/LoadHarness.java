@@ -0,0 +1,303 @@
+package com.novus.map_service.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.novus.map_service.Consumer;
+import com.novus.map_service.MapServiceFixture;
+import com.novus.map_service.ReplyPublisher;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.configuration.KafkaConsumerConfig;
+import com.novus.map_service.dao.MongoOperationCounter;
+import com.novus.map_service.geo.GeoPartitioner;
+import com.novus.map_service.geo.SpatialRouter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public final class LoadHarness {
+
+    private static final String TOPIC = "map-service";
+    private static final String SENT_AT_HEADER = "load-sent-at-nanos";
+
+    private final LoadHarnessOptions options;
+    private final MapServiceFixture fixture = new MapServiceFixture();
+    private final AtomicLong produced = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final List<long[]> lagSamples = new ArrayList<>();
+    private final Timer endToEndLatency;
+    private final SpatialRouter spatialRouter = new SpatialRouter(new EnvConfiguration());
+    private final Map<String, String> routingKeysByPayload = new HashMap<>();
+
+    private volatile boolean measuring;
+
+    private LoadHarness(LoadHarnessOptions options) {
+        this.options = options;
+        this.endToEndLatency = Timer.builder("load.end.to.end")
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .distributionStatisticExpiry(Duration.ofHours(6))
+                .distributionStatisticBufferLength(1)
+                .register(new SimpleMeterRegistry());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(LoadHarnessOptions.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, options.partitions(), TOPIC);
+        broker.afterPropertiesSet();
+
+        ConcurrentMessageListenerContainer<String, String> container = listenerContainer(broker.getBrokersAsString());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try (KafkaProducer<String, String> producer = producer(broker.getBrokersAsString());
+             BufferedWriter recorder = options.recordFile() != null
+                     ? Files.newBufferedWriter(options.recordFile(), StandardCharsets.UTF_8) : null) {
+            container.start();
+
+            TrafficGenerator trafficGenerator = new TrafficGenerator(fixture, options);
+            long runStartedAt = System.nanoTime();
+            long measurementStartsAt = runStartedAt + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+            long runEndsAt = measurementStartsAt + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+            long[] measurementBaseline = new long[3];
+
+            sampler.scheduleAtFixedRate(() -> {
+                if (measuring) {
+                    synchronized (lagSamples) {
+                        lagSamples.add(new long[]{System.nanoTime(), produced.get() - processed.get()});
+                    }
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+
+            long sent = 0;
+            while (System.nanoTime() < runEndsAt) {
+                if (!measuring && System.nanoTime() >= measurementStartsAt) {
+                    measurementBaseline[0] = processed.get();
+                    measurementBaseline[1] = fixture.getOperationCounter().getReads();
+                    measurementBaseline[2] = fixture.getOperationCounter().getWrites();
+                    measuring = true;
+                }
+
+                String[] record = trafficGenerator.next();
+                ProducerRecord<String, String> producerRecord = new ProducerRecord<>(TOPIC, routingKey(record), record[1]);
+                producerRecord.headers().add(ReplyPublisher.OPERATION_HEADER, record[0].getBytes(StandardCharsets.UTF_8));
+                producerRecord.headers().add(SENT_AT_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(System.nanoTime()).array());
+                producerRecord.headers().add(KafkaHeaders.CORRELATION_ID,
+                        Long.toString(sent).getBytes(StandardCharsets.UTF_8));
+                producer.send(producerRecord);
+                produced.incrementAndGet();
+                if (recorder != null) {
+                    recorder.write(record[0]);
+                    recorder.write('\t');
+                    recorder.write(record[1]);
+                    recorder.newLine();
+                }
+
+                sent++;
+                if (options.targetRate() > 0) {
+                    long sendAt = runStartedAt + sent * 1_000_000_000L / options.targetRate();
+                    long wait = sendAt - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+            }
+            producer.flush();
+            long producingEndedAt = System.nanoTime();
+            long processedAtEnd = processed.get();
+
+            long drainDeadline = producingEndedAt + TimeUnit.SECONDS.toNanos(options.drainTimeoutSeconds());
+            while (processed.get() < produced.get() && System.nanoTime() < drainDeadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+            measuring = false;
+
+            report(measurementStartsAt, producingEndedAt, processedAtEnd, measurementBaseline);
+        } finally {
+            sampler.shutdownNow();
+            container.stop();
+            broker.destroy();
+        }
+    }
+
+    private ConcurrentMessageListenerContainer<String, String> listenerContainer(String bootstrapServers) {
+        EnvConfiguration envConfiguration = new EnvConfiguration();
+        envConfiguration.setKafkaBootstrapServers(bootstrapServers);
+        KafkaConsumerConfig kafkaConsumerConfig = new KafkaConsumerConfig(envConfiguration, fixture.getRegionRebalanceListener());
+        ReflectionTestUtils.setField(kafkaConsumerConfig, "groupId", "map-service-load-harness");
+
+        Consumer consumer = fixture.getConsumer();
+        ConcurrentMessageListenerContainer<String, String> container =
+                kafkaConsumerConfig.kafkaListenerContainerFactory().createContainer(TOPIC);
+        container.setupMessageListener((AcknowledgingMessageListener<String, String>) (record, acknowledgment) -> {
+            Header correlationId = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+            Header operation = record.headers().lastHeader(ReplyPublisher.OPERATION_HEADER);
+            consumer.consumeAuthenticationEvents(record.value(), record.key(), record.partition(), record.offset(),
+                    correlationId != null ? correlationId.value() : null, operation != null ? operation.value() : null,
+                    acknowledgment);
+            processed.incrementAndGet();
+            if (measuring) {
+                endToEndLatency.record(System.nanoTime() - sentAt(record), TimeUnit.NANOSECONDS);
+            }
+        });
+        return container;
+    }
+
+    private static long sentAt(ConsumerRecord<String, String> record) {
+        Header header = record.headers().lastHeader(SENT_AT_HEADER);
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    private String routingKey(String[] record) {
+        return routingKeysByPayload.computeIfAbsent(record[1], payload -> {
+            try {
+                JsonNode request = fixture.getObjectMapper().readTree(payload).path("request");
+                return spatialRouter.routingKey(record[0],
+                        fixture.getObjectMapper().convertValue(request, new TypeReference<Map<String, String>>() { }));
+            } catch (IOException e) {
+                return record[0];
+            }
+        });
+    }
+
+    private static KafkaProducer<String, String> producer(String bootstrapServers) {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.PARTITIONER_CLASS_CONFIG, GeoPartitioner.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.ACKS_CONFIG, "1"
+        ));
+    }
+
+    private void report(long measurementStartsAt, long producingEndedAt, long processedAtEnd, long[] baseline) throws IOException {
+        double measuredSeconds = (producingEndedAt - measurementStartsAt) / 1e9;
+        long measuredMessages = processedAtEnd - baseline[0];
+        long totalProcessed = processed.get() - baseline[0];
+        MongoOperationCounter operationCounter = fixture.getOperationCounter();
+        long reads = operationCounter.getReads() - baseline[1];
+        long writes = operationCounter.getWrites() - baseline[2];
+
+        long startLag;
+        long endLag;
+        long maxLag = 0;
+        double lagGrowthPerSecond;
+        synchronized (lagSamples) {
+            startLag = lagSamples.isEmpty() ? 0 : lagSamples.get(0)[1];
+            endLag = lagSamples.isEmpty() ? 0 : lagSamples.get(lagSamples.size() - 1)[1];
+            for (long[] sample : lagSamples) {
+                maxLag = Math.max(maxLag, sample[1]);
+            }
+            lagGrowthPerSecond = slope(lagSamples);
+        }
+
+        HistogramSnapshot snapshot = endToEndLatency.takeSnapshot();
+        double throughput = measuredMessages / measuredSeconds;
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("durationSeconds", measuredSeconds);
+        report.put("targetRate", options.targetRate());
+        report.put("partitions", options.partitions());
+        report.put("users", options.users());
+        report.put("userSkew", options.userSkew());
+        report.set("operationMix", objectMapper.valueToTree(options.operationMix()));
+        report.put("produced", produced.get());
+        report.put("processed", totalProcessed);
+        report.put("throughputPerSecond", throughput);
+        report.put("saturated", lagGrowthPerSecond > Math.max(1, throughput * 0.01));
+        ObjectNode latency = report.putObject("endToEndLatencyMillis");
+        latency.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        latency.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            latency.put("p" + trimPercentile(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        ObjectNode lag = report.putObject("lag");
+        lag.put("start", startLag);
+        lag.put("end", endLag);
+        lag.put("max", maxLag);
+        lag.put("growthPerSecond", lagGrowthPerSecond);
+        ObjectNode mongo = report.putObject("mongoOperationsPerMessage");
+        mongo.put("reads", totalProcessed == 0 ? 0 : (double) reads / totalProcessed);
+        mongo.put("writes", totalProcessed == 0 ? 0 : (double) writes / totalProcessed);
+        mongo.put("total", totalProcessed == 0 ? 0 : (double) (reads + writes) / totalProcessed);
+        ArrayNode lagSeries = lag.putArray("samples");
+        synchronized (lagSamples) {
+            lagSamples.forEach(sample -> lagSeries.add(sample[1]));
+        }
+
+        String json = objectMapper.writeValueAsString(report);
+        if (options.reportFile().getParent() != null) {
+            Files.createDirectories(options.reportFile().getParent());
+        }
+        Files.writeString(options.reportFile(), json, StandardCharsets.UTF_8);
+
+        System.out.printf("Throughput: %.0f msg/s over %.0f s (%s)%n", throughput, measuredSeconds,
+                report.get("saturated").asBoolean() ? "consumer saturated, this is the per-pod capacity"
+                        : "producer-bound, raise --rate to find the capacity");
+        System.out.printf("End-to-end latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latency.path("p50").asDouble(), latency.path("p99").asDouble(), latency.path("max").asDouble());
+        System.out.printf("Lag: start %d, end %d, max %d, growth %.1f msg/s%n", startLag, endLag, maxLag, lagGrowthPerSecond);
+        System.out.printf("Mongo operations per message: %.2f%n", mongo.get("total").asDouble());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+    }
+
+    private static double slope(List<long[]> samples) {
+        int count = samples.size();
+        if (count < 2) {
+            return 0;
+        }
+        double origin = samples.get(0)[0];
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        double sumXX = 0;
+        for (long[] sample : samples) {
+            double x = (sample[0] - origin) / 1e9;
+            double y = sample[1];
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        double denominator = count * sumXX - sumX * sumX;
+        return denominator == 0 ? 0 : (count * sumXY - sumX * sumY) / denominator;
+    }
+
+    private static String trimPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile).replace(".", "");
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.novus.map_service.load;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+record LoadHarnessOptions(
+        int durationSeconds,
+        int warmupSeconds,
+        int drainTimeoutSeconds,
+        int targetRate,
+        int partitions,
+        int users,
+        double userSkew,
+        Map<String, Double> operationMix,
+        Path replayFile,
+        Path recordFile,
+        Path reportFile
+) {
+
+    private static final String DEFAULT_MIX = "updateUserPosition=50,getNearbyUsers=15,getAllAlertsByPosition=8,"
+            + "getAllAlertsByRoute=4,saveNewAlert=3,validateUserAlert=3,invalidateUserAlert=1,getUserFavoriteLocations=3,"
+            + "getNearestFavoriteLocations=2,saveUserRoute=3,getUserRouteHistory=2,saveNewRouteRecalculation=2,"
+            + "updateUserNavigationPreferences=1,shareLocation=1,shareRoute=1,getMapAdminDashboardData=1";
+
+    static LoadHarnessOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadHarnessOptions(
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("drain-timeout", "30")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("partitions", "3")),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Double.parseDouble(values.getOrDefault("skew", "1.1")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                values.containsKey("replay") ? Path.of(values.get("replay")) : null,
+                values.containsKey("record") ? Path.of(values.get("record")) : null,
+                Path.of(values.getOrDefault("report", "target/load-report.json"))
+        );
+    }
+
+    private static Map<String, Double> parseMix(String mix) {
+        Map<String, Double> operationMix = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            operationMix.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        return operationMix;
+    }
+
+}
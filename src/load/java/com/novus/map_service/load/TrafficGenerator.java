@@ -0,0 +1,96 @@
+package com.novus.map_service.load;
+
+import com.novus.map_service.MapServiceFixture;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+class TrafficGenerator {
+
+    private final MapServiceFixture fixture;
+    private final String[] operations;
+    private final double[] operationCdf;
+    private final double[] userCdf;
+    private final Map<String, String> payloadCache = new HashMap<>();
+    private final List<String[]> replayRecords;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int replayPosition;
+
+    TrafficGenerator(MapServiceFixture fixture, LoadHarnessOptions options) {
+        this.fixture = fixture;
+        this.operations = options.operationMix().keySet().toArray(new String[0]);
+        this.operationCdf = cdf(options.operationMix().values().stream().mapToDouble(Double::doubleValue).toArray());
+        this.userCdf = zipfCdf(options.users(), options.userSkew());
+        this.replayRecords = options.replayFile() != null ? readReplay(options.replayFile()) : null;
+
+        for (String operation : operations) {
+            if (!fixture.getOperationKeys().contains(operation)) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+            }
+        }
+    }
+
+    String[] next() {
+        if (replayRecords != null) {
+            String[] record = replayRecords.get(replayPosition);
+            replayPosition = (replayPosition + 1) % replayRecords.size();
+            return record;
+        }
+
+        String operation = operations[sample(operationCdf)];
+        int user = sample(userCdf);
+        String payload = payloadCache.computeIfAbsent(operation + '#' + user, key -> user == 0
+                ? fixture.payload(operation)
+                : fixture.payload(operation).replace(
+                "\"" + MapServiceFixture.USER_ID + "\"", "\"" + MapServiceFixture.USER_ID + "-" + user + "\""));
+        return new String[]{operation, payload};
+    }
+
+    private int sample(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cdf = new double[weights.length];
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i] / total;
+            cdf[i] = cumulative;
+        }
+        return cdf;
+    }
+
+    private static double[] zipfCdf(int users, double skew) {
+        double[] weights = new double[Math.max(users, 1)];
+        for (int rank = 0; rank < weights.length; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, skew);
+        }
+        return cdf(weights);
+    }
+
+    private static List<String[]> readReplay(Path replayFile) {
+        try {
+            List<String[]> records = Files.readAllLines(replayFile, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> line.split("\t", 2))
+                    .toList();
+            if (records.isEmpty()) {
+                throw new IllegalArgumentException("Replay file " + replayFile + " is empty");
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
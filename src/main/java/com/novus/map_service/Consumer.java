@@ -1,10 +1,21 @@
 package com.novus.map_service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.dao.UnitOfWorkManager;
+import com.novus.map_service.dao.UserCache;
+import com.novus.map_service.jfr.MessageDeserializedEvent;
+import com.novus.map_service.jfr.MessageEvents;
+import com.novus.map_service.jfr.MessageHandledEvent;
+import com.novus.map_service.jfr.MessageProcessedEvent;
+import com.novus.map_service.jfr.ReplyPublishedEvent;
+import com.novus.map_service.jfr.UnitOfWorkCommittedEvent;
 import com.novus.map_service.services.*;
+import com.novus.map_service.utils.LogUtils;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
+import com.novus.shared_models.common.User.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.ResourceNotFoundException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -12,11 +23,26 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class Consumer {
 
+    private static final Set<String> REPLYING_OPERATIONS = Set.of(
+            "getMapAdminDashboardData",
+            "getAllAlertsByPosition",
+            "getAllAlertsByRoute",
+            "getArchivedAlerts",
+            "getUserFavoriteLocations",
+            "getNearestFavoriteLocations",
+            "getUserRouteHistory",
+            "getNearbyUsers"
+    );
+
     private final ObjectMapper objectMapper;
     private final AdminDashboardService adminDashboardService;
     private final AlertService alertService;
@@ -24,6 +50,10 @@ public class Consumer {
     private final RouteService routeService;
     private final UserNavigationService userNavigationService;
     private final SharingService sharingService;
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final ReplyPublisher replyPublisher;
+    private final UserCache userCache;
+    private final LogUtils logUtils;
 
     @KafkaListener(topics = "map-service", groupId = "${spring.kafka.consumer.group-id}")
     public void consumeAuthenticationEvents(
@@ -31,38 +61,76 @@ public class Consumer {
             @Header(KafkaHeaders.RECEIVED_KEY) String key,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(name = KafkaHeaders.CORRELATION_ID, required = false) byte[] correlationIdHeader,
+            @Header(name = ReplyPublisher.OPERATION_HEADER, required = false) byte[] operationHeader,
             Acknowledgment acknowledgment) {
 
+        String operationKey = operationHeader != null ? new String(operationHeader, StandardCharsets.UTF_8) : key;
+        MessageProcessedEvent processedEvent = MessageEvents.begin(new MessageProcessedEvent());
+        MessageEvents.open(operationKey, partition, offset);
+        KafkaMessage kafkaMessage = null;
         try {
-            log.info("JSON message received from map-service topic [key: {}, partition: {}, offset: {}]", key, partition, offset);
+            log.info("JSON message received from map-service topic [operation: {}, key: {}, partition: {}, offset: {}]",
+                    operationKey, key, partition, offset);
+
+            MessageDeserializedEvent deserializedEvent = MessageEvents.begin(new MessageDeserializedEvent());
+            kafkaMessage = objectMapper.readValue(messageJson, KafkaMessage.class);
+            MessageEvents.identify(userIdOf(kafkaMessage));
+            MessageEvents.commit(deserializedEvent);
+
+            unitOfWorkManager.begin();
+            MessageHandledEvent handledEvent = MessageEvents.begin(new MessageHandledEvent());
+            boolean slimEnvelope = resolveAuthenticatedUser(kafkaMessage);
+            Object result = processMessage(operationKey, kafkaMessage);
+            MessageEvents.commit(handledEvent);
 
-            KafkaMessage kafkaMessage = objectMapper.readValue(messageJson, KafkaMessage.class);
+            String userId = kafkaMessage.getAuthenticatedUser() != null ? kafkaMessage.getAuthenticatedUser().getId() : null;
+            if (slimEnvelope && unitOfWorkManager.hasPendingWrites(User.class, userId)) {
+                unitOfWorkManager.afterCommit(() -> userCache.evict(userId));
+            }
 
-            processMessage(key, kafkaMessage);
+            UnitOfWorkCommittedEvent committedEvent = MessageEvents.begin(new UnitOfWorkCommittedEvent());
+            commit(operationKey, kafkaMessage, userId);
+            MessageEvents.commit(committedEvent);
+
+            if (result != null) {
+                String correlationId = correlationId(correlationIdHeader, kafkaMessage);
+                if (correlationId != null) {
+                    ReplyPublishedEvent publishedEvent = MessageEvents.begin(new ReplyPublishedEvent());
+                    replyPublisher.publish(correlationId, operationKey, result);
+                    MessageEvents.commit(publishedEvent);
+                } else {
+                    log.warn("No correlation id on {} request, dropping its reply", operationKey);
+                }
+            }
 
             acknowledgment.acknowledge();
         } catch (Exception e) {
+            unitOfWorkManager.discard();
             log.error("Error processing message: {}", e.getMessage(), e);
+            publishError(operationKey, correlationIdHeader, kafkaMessage, e);
             acknowledgment.acknowledge();
+        } finally {
+            MessageEvents.commit(processedEvent);
+            MessageEvents.close();
         }
     }
 
-    private void processMessage(String operationKey, KafkaMessage kafkaMessage) {
+    Object processMessage(String operationKey, KafkaMessage kafkaMessage) {
         log.info("Processing operation: {}", operationKey);
 
         switch (operationKey) {
             case "getMapAdminDashboardData":
-                adminDashboardService.processGetMapAdminDashboardData(kafkaMessage);
-                break;
+                return adminDashboardService.processGetMapAdminDashboardData(kafkaMessage);
             case "saveNewAlert":
                 alertService.processSaveNewAlert(kafkaMessage);
                 break;
             case "getAllAlertsByPosition":
-                alertService.processGetAllAlertsByPosition(kafkaMessage);
-                break;
+                return alertService.processGetAllAlertsByPosition(kafkaMessage);
             case "getAllAlertsByRoute":
-                alertService.processGetAllAlertsByRoute(kafkaMessage);
-                break;
+                return alertService.processGetAllAlertsByRoute(kafkaMessage);
+            case "getArchivedAlerts":
+                return alertService.processGetArchivedAlerts(kafkaMessage);
             case "validateUserAlert":
                 alertService.processValidateUserAlert(kafkaMessage);
                 break;
@@ -70,8 +138,9 @@ public class Consumer {
                 alertService.processInvalidateUserAlert(kafkaMessage);
                 break;
             case "getUserFavoriteLocations":
-                locationService.processGetUserFavoriteLocations(kafkaMessage);
-                break;
+                return locationService.processGetUserFavoriteLocations(kafkaMessage);
+            case "getNearestFavoriteLocations":
+                return locationService.processGetNearestFavoriteLocations(kafkaMessage);
             case "saveNewUserFavoriteLocation":
                 locationService.processSaveNewUserFavoriteLocation(kafkaMessage);
                 break;
@@ -85,8 +154,7 @@ public class Consumer {
                 routeService.processSaveUserRoute(kafkaMessage);
                 break;
             case "getUserRouteHistory":
-                routeService.processGetUserRouteHistory(kafkaMessage);
-                break;
+                return routeService.processGetUserRouteHistory(kafkaMessage);
             case "saveNewRouteRecalculation":
                 routeService.processSaveNewRouteRecalculation(kafkaMessage);
                 break;
@@ -94,7 +162,9 @@ public class Consumer {
                 userNavigationService.processUpdateUserNavigationPreferences(kafkaMessage);
                 break;
             case "getNearbyUsers":
-                userNavigationService.processGetNearbyUsers(kafkaMessage);
+                return userNavigationService.processGetNearbyUsers(kafkaMessage);
+            case "updateUserPosition":
+                userNavigationService.processUpdateUserPosition(kafkaMessage);
                 break;
             case "shareLocation":
                 sharingService.processShareLocation(kafkaMessage);
@@ -106,5 +176,71 @@ public class Consumer {
                 log.warn("Unknown operation: {}", operationKey);
                 break;
         }
+        return null;
+    }
+
+    private void commit(String operationKey, KafkaMessage kafkaMessage, String userId) {
+        try {
+            unitOfWorkManager.commit();
+        } catch (RuntimeException e) {
+            logUtils.buildAndSaveErrorLog(
+                    "COMMIT_UNIT_OF_WORK_ERROR",
+                    kafkaMessage.getIpAddress(),
+                    String.format("Writes of operation '%s' could not be committed: %s", operationKey, e.getMessage()),
+                    null,
+                    null,
+                    "map-service",
+                    e,
+                    userId
+            );
+            throw e;
+        }
+    }
+
+    private void publishError(String operationKey, byte[] correlationIdHeader, KafkaMessage kafkaMessage, Exception e) {
+        if (!REPLYING_OPERATIONS.contains(operationKey)) {
+            return;
+        }
+        String correlationId = correlationIdHeader != null || kafkaMessage != null
+                ? correlationId(correlationIdHeader, kafkaMessage)
+                : null;
+        if (correlationId == null) {
+            log.warn("No correlation id on failed {} request, dropping its error reply", operationKey);
+            return;
+        }
+        try {
+            replyPublisher.publishError(correlationId, operationKey, e.getMessage());
+        } catch (Exception publishException) {
+            log.error("Failed to publish {} error reply for correlation id {}: {}", operationKey, correlationId,
+                    publishException.getMessage());
+        }
+    }
+
+    private boolean resolveAuthenticatedUser(KafkaMessage kafkaMessage) {
+        Map<String, String> request = kafkaMessage.getRequest();
+        if (kafkaMessage.getAuthenticatedUser() != null || request == null || request.get("userId") == null) {
+            return false;
+        }
+
+        String userId = request.get("userId");
+        long userVersion = request.get("userVersion") != null ? Long.parseLong(request.get("userVersion")) : 0;
+        User user = userCache.resolve(userId, userVersion)
+                .orElseThrow(() -> new ResourceNotFoundException(String.format("User with ID '%s' not found", userId)));
+        kafkaMessage.setAuthenticatedUser(user);
+        return true;
+    }
+
+    private static String userIdOf(KafkaMessage kafkaMessage) {
+        if (kafkaMessage.getAuthenticatedUser() != null) {
+            return kafkaMessage.getAuthenticatedUser().getId();
+        }
+        return kafkaMessage.getRequest() != null ? kafkaMessage.getRequest().get("userId") : null;
+    }
+
+    private static String correlationId(byte[] correlationIdHeader, KafkaMessage kafkaMessage) {
+        if (correlationIdHeader != null) {
+            return new String(correlationIdHeader, StandardCharsets.UTF_8);
+        }
+        return kafkaMessage.getRequest() != null ? kafkaMessage.getRequest().get("correlationId") : null;
     }
 }
\ No newline at end of file
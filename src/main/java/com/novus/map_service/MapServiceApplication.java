@@ -10,12 +10,14 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
 @Slf4j
 @SpringBootApplication(scanBasePackages = "com.novus.map_service")
 @EnableConfigurationProperties(EnvConfiguration.class)
+@EnableScheduling
 public class MapServiceApplication {
 
 	private final DateConfiguration dateConfiguration = new DateConfiguration();
@@ -0,0 +1,55 @@
+package com.novus.map_service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplyPublisher {
+
+    public static final String OPERATION_HEADER = "operation";
+    public static final String STATUS_HEADER = "status";
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private final KafkaTemplate<String, byte[]> replyKafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final EnvConfiguration envConfiguration;
+
+    public void publish(String correlationId, String operationKey, Object result) throws JsonProcessingException {
+        send(correlationId, operationKey, STATUS_OK, objectMapper.writeValueAsBytes(result));
+    }
+
+    public void publishError(String correlationId, String operationKey, String errorMessage) throws JsonProcessingException {
+        Map<String, String> error = new LinkedHashMap<>();
+        error.put("status", STATUS_ERROR);
+        error.put("error", errorMessage);
+        send(correlationId, operationKey, STATUS_ERROR, objectMapper.writeValueAsBytes(error));
+    }
+
+    private void send(String correlationId, String operationKey, String status, byte[] payload) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(envConfiguration.getReplyTopic(), correlationId, payload);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(OPERATION_HEADER, operationKey.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(STATUS_HEADER, status.getBytes(StandardCharsets.UTF_8));
+
+        replyKafkaTemplate.send(record).whenComplete((sendResult, e) -> {
+            if (e != null) {
+                log.error("Failed to publish {} reply for correlation id {}: {}", operationKey, correlationId, e.getMessage());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.novus.map_service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.geo.AlertApproachingEvent;
+import com.novus.map_service.geo.FavoriteLocationGeofenceEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNotificationPublisher {
+
+    public static final String EVENT_HEADER = "event";
+    public static final String ALERT_APPROACHING = "alertApproaching";
+    public static final String FAVORITE_LOCATION_GEOFENCE = "favoriteLocationGeofence";
+
+    private final KafkaTemplate<String, byte[]> replyKafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final EnvConfiguration envConfiguration;
+
+    @EventListener
+    public void onAlertApproaching(AlertApproachingEvent event) {
+        send(event.userId(), ALERT_APPROACHING, event);
+    }
+
+    @EventListener
+    public void onFavoriteLocationGeofence(FavoriteLocationGeofenceEvent event) {
+        send(event.userId(), FAVORITE_LOCATION_GEOFENCE, event);
+    }
+
+    private void send(String userId, String eventType, Object event) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.error("Unable to serialize {} notification for user {}: {}", eventType, userId, e.getMessage());
+            return;
+        }
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(envConfiguration.getUserNotificationTopic(), userId, payload);
+        record.headers().add(EVENT_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+
+        replyKafkaTemplate.send(record).whenComplete((sendResult, e) -> {
+            if (e != null) {
+                log.error("Failed to publish {} notification for user {}: {}", eventType, userId, e.getMessage());
+            }
+        });
+    }
+
+}
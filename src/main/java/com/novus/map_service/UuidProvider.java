@@ -1,14 +1,62 @@
 package com.novus.map_service;
 
 import lombok.RequiredArgsConstructor;
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @RequiredArgsConstructor
 public class UuidProvider {
 
-    public String generateUuid() { return UUID.randomUUID().toString(); }
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long COUNTER_SEED_MASK = COUNTER_MASK >>> 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    private final ThreadLocal<GeneratorState> generatorState = ThreadLocal.withInitial(GeneratorState::new);
+
+    public String generateUuid() { return nextUuid().toString(); }
+
+    public Binary generateBinaryUuid() {
+        return toBinary(nextUuid());
+    }
+
+    public static Binary toBinary(UUID uuid) {
+        byte[] bytes = ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+        return new Binary(BsonBinarySubType.UUID_STANDARD, bytes);
+    }
+
+    public UUID nextUuid() {
+        GeneratorState state = generatorState.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            state.counter = random.nextLong() & COUNTER_SEED_MASK;
+        } else if (++state.counter > COUNTER_MASK) {
+            state.lastMillis++;
+            state.counter = random.nextLong() & COUNTER_SEED_MASK;
+        }
+
+        long mostSignificantBits = (state.lastMillis << 16) | VERSION_7 | state.counter;
+        long leastSignificantBits = (random.nextLong() & VARIANT_MASK) | VARIANT_RFC_4122;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private static final class GeneratorState {
+        private long lastMillis;
+        private long counter;
+    }
 
 }
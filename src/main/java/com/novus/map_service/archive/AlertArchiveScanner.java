@@ -0,0 +1,128 @@
+package com.novus.map_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.geo.Geohash;
+import com.novus.shared_models.common.Alert.Alert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+@Slf4j
+@Component
+public class AlertArchiveScanner {
+
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final int regionPrecision;
+    private final int maxResults;
+
+    public AlertArchiveScanner(ObjectMapper objectMapper, EnvConfiguration envConfiguration) {
+        this.objectMapper = objectMapper;
+        this.root = envConfiguration.getAlertArchiveDirectory() != null ? Path.of(envConfiguration.getAlertArchiveDirectory()) : null;
+        this.regionPrecision = envConfiguration.getAlertArchiveRegionPrecision();
+        this.maxResults = envConfiguration.getAlertArchiveScanMaxResults();
+    }
+
+    public List<Alert> scan(Date from, Date to, double minLatitude, double minLongitude,
+                            double maxLatitude, double maxLongitude) throws IOException {
+        if (root == null || from.after(to)) {
+            return List.of();
+        }
+        long fromMillis = from.getTime();
+        long toMillis = to.getTime();
+        Set<String> regions = Geohash.covering(minLatitude, minLongitude, maxLatitude, maxLongitude, regionPrecision);
+
+        Map<String, Alert> alertsById = new LinkedHashMap<>();
+        for (LocalDate day = ArchiveLayout.day(fromMillis); !day.isAfter(ArchiveLayout.day(toMillis)); day = day.plusDays(1)) {
+            for (Path partition : partitions(day, regions)) {
+                for (Path segment : ArchiveLayout.segments(partition)) {
+                    scanSegment(segment, fromMillis, toMillis, minLatitude, minLongitude, maxLatitude, maxLongitude, alertsById);
+                    if (alertsById.size() >= maxResults) {
+                        log.debug("Archive scan truncated at {} alerts", maxResults);
+                        return new ArrayList<>(alertsById.values());
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(alertsById.values());
+    }
+
+    private List<Path> partitions(LocalDate day, Set<String> regions) throws IOException {
+        Path dayDirectory = root.resolve(day.toString());
+        if (!Files.isDirectory(dayDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> partitions = Files.list(dayDirectory)) {
+            return partitions.filter(partition -> regions.contains(partition.getFileName().toString())).sorted().toList();
+        }
+    }
+
+    private void scanSegment(Path segment, long from, long to, double minLatitude, double minLongitude,
+                             double maxLatitude, double maxLongitude, Map<String, Alert> alertsById) throws IOException {
+        Path indexFile = ArchiveLayout.indexOf(segment);
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        List<ArchiveBlock> blocks = ArchiveBlock.readIndex(indexFile);
+        try (FileChannel data = FileChannel.open(segment, StandardOpenOption.READ)) {
+            for (ArchiveBlock block : blocks) {
+                if (!block.overlaps(from, to)) {
+                    continue;
+                }
+                for (Alert alert : readBlock(data, block)) {
+                    long createdAt = AlertArchiver.createdAt(alert);
+                    double latitude = alert.getLocation().getLatitude();
+                    double longitude = alert.getLocation().getLongitude();
+                    if (createdAt >= from && createdAt <= to
+                            && latitude >= minLatitude && latitude <= maxLatitude
+                            && longitude >= minLongitude && longitude <= maxLongitude
+                            && alertsById.size() < maxResults) {
+                        alertsById.putIfAbsent(alert.getId(), alert);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Alert> readBlock(FileChannel data, ArchiveBlock block) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, block.offset() + buffer.position()) < 0) {
+                throw new IOException("Archive block at offset " + block.offset() + " is truncated");
+            }
+        }
+
+        List<Alert> alerts = new ArrayList<>(block.count());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    alerts.add(objectMapper.readValue(line, Alert.class));
+                }
+            }
+        }
+        return alerts;
+    }
+
+}
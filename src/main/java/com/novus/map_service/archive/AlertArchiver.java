@@ -0,0 +1,188 @@
+package com.novus.map_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertDaoUtils;
+import com.novus.map_service.dao.LeaseDaoUtils;
+import com.novus.shared_models.common.Alert.Alert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Component
+public class AlertArchiver {
+
+    private static final String LEASE_NAME = "alert-archiver";
+
+    private final AlertDaoUtils alertDaoUtils;
+    private final LeaseDaoUtils leaseDaoUtils;
+    private final DateConfiguration dateConfiguration;
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final int batchSize;
+    private final long gracePeriodMs;
+    private final long segmentMaxBytes;
+    private final int regionPrecision;
+    private final Duration leaseDuration;
+    private final String leaseHolder = UUID.randomUUID().toString();
+    private final Counter archivedCounter;
+
+    public AlertArchiver(AlertDaoUtils alertDaoUtils, LeaseDaoUtils leaseDaoUtils, DateConfiguration dateConfiguration,
+                         ObjectMapper objectMapper, EnvConfiguration envConfiguration, MeterRegistry meterRegistry) {
+        this.alertDaoUtils = alertDaoUtils;
+        this.leaseDaoUtils = leaseDaoUtils;
+        this.dateConfiguration = dateConfiguration;
+        this.objectMapper = objectMapper;
+        this.root = envConfiguration.getAlertArchiveDirectory() != null ? Path.of(envConfiguration.getAlertArchiveDirectory()) : null;
+        this.batchSize = envConfiguration.getAlertArchiveBatchSize();
+        this.gracePeriodMs = envConfiguration.getAlertArchiveGracePeriodMs();
+        this.segmentMaxBytes = envConfiguration.getAlertArchiveSegmentMaxBytes();
+        this.regionPrecision = envConfiguration.getAlertArchiveRegionPrecision();
+        this.leaseDuration = Duration.ofMillis(envConfiguration.getAlertArchiveLeaseMs());
+        this.archivedCounter = Counter.builder("map.alerts.archived")
+                .description("Expired alerts moved from Mongo to the cold archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.alert-archive-interval-ms:300000}")
+    public void archiveExpired() {
+        if (root == null) {
+            return;
+        }
+        try {
+            if (!leaseDaoUtils.tryAcquire(LEASE_NAME, leaseHolder, dateConfiguration.newDate(), leaseDuration)) {
+                log.debug("Alert archival is running on another instance");
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to acquire the alert archival lease: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            archiveExpiredBatches();
+        } finally {
+            try {
+                leaseDaoUtils.release(LEASE_NAME, leaseHolder);
+            } catch (RuntimeException e) {
+                log.warn("Unable to release the alert archival lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void archiveExpiredBatches() {
+        Date cutoff = new Date(dateConfiguration.newDate().getTime() - gracePeriodMs);
+        int archived = 0;
+        try {
+            List<Alert> batch;
+            do {
+                if (archived > 0 && !leaseDaoUtils.tryAcquire(LEASE_NAME, leaseHolder, dateConfiguration.newDate(), leaseDuration)) {
+                    log.warn("Lost the alert archival lease after {} alerts", archived);
+                    break;
+                }
+                batch = alertDaoUtils.findExpiredBefore(cutoff, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                archive(batch);
+                alertDaoUtils.deleteExpiredByIds(batch.stream().map(Alert::getId).toList(), cutoff);
+                archived += batch.size();
+                archivedCounter.increment(batch.size());
+            } while (batch.size() == batchSize);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Alert archival stopped after {} alerts: {}", archived, e.getMessage());
+            return;
+        }
+        if (archived > 0) {
+            log.info("Archived {} alerts expired before {} to {}", archived, cutoff, root);
+        }
+    }
+
+    void archive(List<Alert> alerts) throws IOException {
+        Map<Path, List<Alert>> alertsByPartition = new LinkedHashMap<>();
+        for (Alert alert : alerts) {
+            LocalDate day = ArchiveLayout.day(createdAt(alert));
+            String region = ArchiveLayout.region(alert, regionPrecision);
+            alertsByPartition.computeIfAbsent(ArchiveLayout.partition(root, day, region), partition -> new ArrayList<>())
+                    .add(alert);
+        }
+        for (Map.Entry<Path, List<Alert>> partition : alertsByPartition.entrySet()) {
+            append(partition.getKey(), partition.getValue());
+        }
+    }
+
+    private void append(Path partition, List<Alert> alerts) throws IOException {
+        Files.createDirectories(partition);
+        Path segment = currentSegment(partition);
+
+        long minCreatedAt = Long.MAX_VALUE;
+        long maxCreatedAt = Long.MIN_VALUE;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            for (Alert alert : alerts) {
+                long createdAt = createdAt(alert);
+                minCreatedAt = Math.min(minCreatedAt, createdAt);
+                maxCreatedAt = Math.max(maxCreatedAt, createdAt);
+                gzip.write(objectMapper.writeValueAsBytes(alert));
+                gzip.write('\n');
+            }
+        }
+        byte[] block = compressed.toByteArray();
+
+        long offset;
+        try (FileChannel data = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            offset = data.size();
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            while (buffer.hasRemaining()) {
+                data.write(buffer, offset + buffer.position());
+            }
+            data.force(false);
+        }
+
+        ArchiveBlock entry = new ArchiveBlock(minCreatedAt, maxCreatedAt, offset, block.length, alerts.size());
+        try (FileChannel index = FileChannel.open(ArchiveLayout.indexOf(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = entry.encode();
+            while (buffer.hasRemaining()) {
+                index.write(buffer);
+            }
+            index.force(false);
+        }
+    }
+
+    private Path currentSegment(Path partition) throws IOException {
+        List<Path> segments = ArchiveLayout.segments(partition);
+        if (segments.isEmpty()) {
+            return ArchiveLayout.segment(partition, 0);
+        }
+        Path last = segments.get(segments.size() - 1);
+        return Files.size(last) < segmentMaxBytes ? last : ArchiveLayout.segment(partition, ArchiveLayout.sequence(last) + 1);
+    }
+
+    static long createdAt(Alert alert) {
+        Date createdAt = alert.getCreatedAt() != null ? alert.getCreatedAt() : alert.getExpiresAt();
+        return createdAt.getTime();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.novus.map_service.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+record ArchiveBlock(long minCreatedAt, long maxCreatedAt, long offset, int length, int count) {
+
+    static final int BYTES = Long.BYTES * 3 + Integer.BYTES * 2;
+
+    boolean overlaps(long from, long to) {
+        return minCreatedAt <= to && maxCreatedAt >= from;
+    }
+
+    ByteBuffer encode() {
+        return ByteBuffer.allocate(BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(minCreatedAt)
+                .putLong(maxCreatedAt)
+                .putLong(offset)
+                .putInt(length)
+                .putInt(count)
+                .flip();
+    }
+
+    static List<ArchiveBlock> readIndex(Path indexFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile)).order(ByteOrder.LITTLE_ENDIAN);
+        List<ArchiveBlock> blocks = new ArrayList<>(buffer.remaining() / BYTES);
+        while (buffer.remaining() >= BYTES) {
+            blocks.add(new ArchiveBlock(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt()));
+        }
+        return blocks;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.novus.map_service.archive;
+
+import com.novus.map_service.geo.Geohash;
+import com.novus.shared_models.common.Alert.Alert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class ArchiveLayout {
+
+    static final String SEGMENT_SUFFIX = ".jsonl.gz";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private ArchiveLayout() {
+    }
+
+    static LocalDate day(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    static String region(Alert alert, int precision) {
+        return Geohash.encode(alert.getLocation().getLatitude(), alert.getLocation().getLongitude(), precision);
+    }
+
+    static Path partition(Path root, LocalDate day, String region) {
+        return root.resolve(day.toString()).resolve(region);
+    }
+
+    static Path segment(Path partition, int sequence) {
+        return partition.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    static Path indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    static List<Path> segments(Path partition) throws IOException {
+        try (Stream<Path> files = Files.list(partition)) {
+            return files.filter(ArchiveLayout::isSegment).sorted().toList();
+        }
+    }
+
+    static int sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.novus.map_service.changelog;
+
+public record AlertStateChange(String alertId, double latitude, double longitude, long expiresAt, byte type,
+                               int confirmations, int rejections) {
+}
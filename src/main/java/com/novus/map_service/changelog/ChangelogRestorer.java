@@ -0,0 +1,171 @@
+package com.novus.map_service.changelog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.geo.AlertColumns;
+import com.novus.map_service.geo.AlertIndex;
+import com.novus.map_service.geo.RegionOwnership;
+import com.novus.map_service.geo.UserPositionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class ChangelogRestorer {
+
+    private final AlertIndex alertIndex;
+    private final UserPositionStore userPositionStore;
+    private final StateChangelog stateChangelog;
+    private final RegionOwnership regionOwnership;
+    private final ObjectMapper objectMapper;
+    private final String bootstrapServers;
+    private final long restoreTimeoutMs;
+
+    public ChangelogRestorer(AlertIndex alertIndex, UserPositionStore userPositionStore, StateChangelog stateChangelog,
+                             RegionOwnership regionOwnership, ObjectMapper objectMapper, EnvConfiguration envConfiguration) {
+        this.alertIndex = alertIndex;
+        this.userPositionStore = userPositionStore;
+        this.stateChangelog = stateChangelog;
+        this.regionOwnership = regionOwnership;
+        this.objectMapper = objectMapper;
+        this.bootstrapServers = envConfiguration.getKafkaBootstrapServers();
+        this.restoreTimeoutMs = envConfiguration.getChangelogRestoreTimeoutMs();
+    }
+
+    public boolean isEnabled() {
+        return stateChangelog.isEnabled();
+    }
+
+    public boolean verifyPartitionCount(Consumer<?, ?> consumer, int topicPartitionCount) {
+        return stateChangelog.verifyPartitionCount(topicPartitionCount,
+                partitionCount(consumer, stateChangelog.getAlertTopic()),
+                partitionCount(consumer, stateChangelog.getPositionTopic()));
+    }
+
+    public void restore(Collection<Integer> partitions) {
+        long startedAt = System.nanoTime();
+        List<TopicPartition> topicPartitions = new ArrayList<>();
+        for (Integer partition : partitions) {
+            topicPartitions.add(new TopicPartition(stateChangelog.getAlertTopic(), partition));
+            topicPartitions.add(new TopicPartition(stateChangelog.getPositionTopic(), partition));
+        }
+
+        Map<String, AlertStateChange> alerts = new LinkedHashMap<>();
+        Map<String, PositionStateChange> positions = new LinkedHashMap<>();
+        Set<String> removedAlertIds = new HashSet<>();
+        Set<String> removedUserIds = new HashSet<>();
+        long records = 0;
+
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(consumerProperties())) {
+            consumer.assign(topicPartitions);
+            consumer.seekToBeginning(topicPartitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(topicPartitions);
+
+            Set<TopicPartition> remaining = new HashSet<>(topicPartitions);
+            long deadline = System.currentTimeMillis() + restoreTimeoutMs;
+            while (true) {
+                remaining.removeIf(topicPartition -> consumer.position(topicPartition) >= endOffsets.get(topicPartition));
+                if (remaining.isEmpty()) {
+                    break;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    log.warn("Changelog restore timed out with {} partitions behind", remaining.size());
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(200))) {
+                    records++;
+                    if (record.topic().equals(stateChangelog.getAlertTopic())) {
+                        apply(record, alerts, removedAlertIds, AlertStateChange.class);
+                    } else {
+                        apply(record, positions, removedUserIds, PositionStateChange.class);
+                    }
+                }
+            }
+        }
+
+        removedAlertIds.forEach(alertIndex::remove);
+        int restoredAlerts = alertIndex.restore(toColumns(alerts.values()));
+        for (String userId : removedUserIds) {
+            userPositionStore.findPosition(userId)
+                    .filter(position -> partitions.contains(regionOwnership.partitionOf(position[0], position[1])))
+                    .ifPresent(position -> userPositionStore.remove(userId));
+        }
+        int restoredPositions = 0;
+        for (PositionStateChange position : positions.values()) {
+            if (userPositionStore.restore(position.userId(), position.latitude(), position.longitude(),
+                    position.updatedAt(), position.visible())) {
+                restoredPositions++;
+            }
+        }
+        log.info("Restored {} alerts and {} positions of partitions {} from {} changelog records in {} ms",
+                restoredAlerts, restoredPositions, partitions, records, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private static int partitionCount(Consumer<?, ?> consumer, String topic) {
+        List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+        return partitions != null ? partitions.size() : 0;
+    }
+
+    private <T> void apply(ConsumerRecord<String, byte[]> record, Map<String, T> latest, Set<String> removed, Class<T> type) {
+        if (record.value() == null) {
+            latest.remove(record.key());
+            removed.add(record.key());
+            return;
+        }
+        try {
+            latest.put(record.key(), objectMapper.readValue(record.value(), type));
+            removed.remove(record.key());
+        } catch (IOException e) {
+            log.warn("Skipping unreadable changelog record {} at {}-{}: {}", record.key(), record.topic(),
+                    record.offset(), e.getMessage());
+        }
+    }
+
+    private static AlertColumns toColumns(Collection<AlertStateChange> changes) {
+        int size = changes.size();
+        AlertColumns columns = new AlertColumns(new String[size], new double[size], new double[size],
+                new long[size], new byte[size], new int[size], new int[size]);
+        int row = 0;
+        for (AlertStateChange change : changes) {
+            columns.alertIds()[row] = change.alertId();
+            columns.latitudes()[row] = change.latitude();
+            columns.longitudes()[row] = change.longitude();
+            columns.expiresAt()[row] = change.expiresAt();
+            columns.types()[row] = change.type();
+            columns.confirmations()[row] = change.confirmations();
+            columns.rejections()[row] = change.rejections();
+            row++;
+        }
+        return columns;
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        return props;
+    }
+
+}
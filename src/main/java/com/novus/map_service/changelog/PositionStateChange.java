@@ -0,0 +1,4 @@
+package com.novus.map_service.changelog;
+
+public record PositionStateChange(String userId, double latitude, double longitude, long updatedAt, boolean visible) {
+}
@@ -0,0 +1,112 @@
+package com.novus.map_service.changelog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.geo.RegionOwnership;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+@Slf4j
+@Component
+public class StateChangelog {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final RegionOwnership regionOwnership;
+    private final ObjectMapper objectMapper;
+    private volatile boolean enabled;
+    private final String alertTopic;
+    private final String positionTopic;
+
+    public StateChangelog(KafkaTemplate<String, byte[]> kafkaTemplate, RegionOwnership regionOwnership,
+                          ObjectMapper objectMapper, EnvConfiguration envConfiguration) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.regionOwnership = regionOwnership;
+        this.objectMapper = objectMapper;
+        this.enabled = envConfiguration.isStateChangelogEnabled() && regionOwnership.isEnabled();
+        this.alertTopic = envConfiguration.getAlertChangelogTopic();
+        this.positionTopic = envConfiguration.getPositionChangelogTopic();
+        if (envConfiguration.isStateChangelogEnabled() && !regionOwnership.isEnabled()) {
+            log.warn("State changelog requires geo partitioning, it stays disabled");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean verifyPartitionCount(int topicPartitionCount, int alertPartitionCount, int positionPartitionCount) {
+        if (enabled && (alertPartitionCount != topicPartitionCount || positionPartitionCount != topicPartitionCount)) {
+            log.error("State changelog disabled: {} has {} partitions and {} has {}, but map-service has {}. "
+                            + "Set changelog-partitions to the map-service partition count and recreate the changelog topics",
+                    alertTopic, alertPartitionCount, positionTopic, positionPartitionCount, topicPartitionCount);
+            enabled = false;
+        }
+        return enabled;
+    }
+
+    public String getAlertTopic() {
+        return alertTopic;
+    }
+
+    public String getPositionTopic() {
+        return positionTopic;
+    }
+
+    public void alertChanged(AlertStateChange change) {
+        if (enabled && regionOwnership.owns(change.latitude(), change.longitude())) {
+            send(alertTopic, partitionOf(change.latitude(), change.longitude()), change.alertId(), change);
+        }
+    }
+
+    public void alertRemoved(String alertId, double latitude, double longitude) {
+        if (enabled && regionOwnership.owns(latitude, longitude)) {
+            send(alertTopic, partitionOf(latitude, longitude), alertId, null);
+        }
+    }
+
+    public void positionChanged(PositionStateChange change, double previousLatitude, double previousLongitude) {
+        if (!enabled) {
+            return;
+        }
+        Integer partition = partitionOf(change.latitude(), change.longitude());
+        if (!Double.isNaN(previousLatitude)) {
+            Integer previousPartition = partitionOf(previousLatitude, previousLongitude);
+            if (!Objects.equals(previousPartition, partition)) {
+                send(positionTopic, previousPartition, change.userId(), null);
+            }
+        }
+        send(positionTopic, partition, change.userId(), change);
+    }
+
+    public void positionRemoved(String userId, double latitude, double longitude) {
+        if (enabled) {
+            send(positionTopic, partitionOf(latitude, longitude), userId, null);
+        }
+    }
+
+    private Integer partitionOf(double latitude, double longitude) {
+        int partition = regionOwnership.partitionOf(latitude, longitude);
+        return partition >= 0 ? partition : null;
+    }
+
+    private void send(String topic, Integer partition, String key, Object change) {
+        byte[] payload;
+        try {
+            payload = change != null ? objectMapper.writeValueAsBytes(change) : null;
+        } catch (JsonProcessingException e) {
+            log.error("Unable to serialize {} changelog record for {}: {}", topic, key, e.getMessage());
+            return;
+        }
+        kafkaTemplate.send(new ProducerRecord<>(topic, partition, key, payload)).whenComplete((sendResult, e) -> {
+            if (e != null) {
+                log.warn("Failed to publish {} changelog record for {}: {}", topic, key, e.getMessage());
+            }
+        });
+    }
+
+}
@@ -1,10 +1,17 @@
 package com.novus.map_service.configuration;
 
+import com.novus.map_service.utils.LogOverflowPolicy;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
@@ -16,4 +23,94 @@ public class EnvConfiguration {
     private String elasticsearchUsername;
     private String kafkaBootstrapServers;
     private String mongoUri;
+
+    private double positionCellSizeDegrees = 0.01;
+    private long positionTtlSeconds = 300;
+    private int positionStoreInitialCapacity = 4096;
+    private double nearbyUsersDefaultRadiusInMeters = 2000;
+    private int nearbyUsersDefaultLimit = 50;
+    private int proximityAlertMaxDistanceInMeters = 5000;
+    private double favoriteGeofenceRadiusInMeters = 150;
+    private int routeHistoryDefaultPageSize = 20;
+    private int routeHistoryMaxPageSize = 100;
+    private int favoriteLocationCacheMaxUsers = 50000;
+    private int userCacheMaxUsers = 50000;
+    private int nearestFavoriteLocationsDefaultLimit = 3;
+    private double alertsByPositionDefaultRadiusInMeters = 5000;
+    private double alertsByRouteCorridorInMeters = 500;
+    private String alertSnapshotFile;
+    private long alertSnapshotCatchUpMarginMs = 5000;
+    private String alertArchiveDirectory;
+    private int alertArchiveBatchSize = 1000;
+    private long alertArchiveGracePeriodMs = 3600000;
+    private long alertArchiveSegmentMaxBytes = 64L * 1024 * 1024;
+    private int alertArchiveRegionPrecision = 2;
+    private int alertArchiveScanMaxResults = 10000;
+    private long alertArchiveLeaseMs = 600000;
+
+    private int logBufferCapacity = 8192;
+    private int logBatchSize = 500;
+    private long logFlushIntervalMs = 1000;
+    private long logShutdownTimeoutMs = 10000;
+    private LogOverflowPolicy logOverflowPolicy = LogOverflowPolicy.DROP;
+    private int errorFingerprintTopFrames = 8;
+    private long errorTraceRenderWindowSeconds = 300;
+    private Map<String, Double> logSamplingRates = new HashMap<>();
+    private List<String> logSamplingAdjustableActions = new ArrayList<>(List.of(
+            "GET_NEARBY_USERS_SUCCESS",
+            "GET_ALL_ALERTS_BY_POSITION_SUCCESS",
+            "GET_ALL_ALERTS_BY_ROUTE_SUCCESS",
+            "GET_USER_ROUTE_HISTORY_SUCCESS"
+    ));
+    private long logRetentionDays = 30;
+    private long logRollupRetentionDays = 400;
+
+    private List<String> logSinks = new ArrayList<>(List.of("mongo"));
+    private String elasticsearchLogIndexPrefix = "map-service-logs";
+    private int elasticsearchMaxInFlightRequests = 4;
+    private int elasticsearchMaxRetries = 5;
+    private long elasticsearchRetryBackoffMs = 500;
+    private long elasticsearchConnectTimeoutMs = 5000;
+    private String logSpillDirectory = Path.of(System.getProperty("java.io.tmpdir"), "map-service-log-spill").toString();
+
+    private Integer mongoMinPoolSize;
+    private Integer mongoMaxPoolSize;
+    private Integer mongoMaxConnecting;
+    private Long mongoMaxWaitTimeMs;
+    private Long mongoMaxConnectionIdleTimeMs;
+    private String mongoReadPreference;
+    private String mongoReadConcern;
+    private String mongoWriteConcern;
+    private Long mongoWriteConcernTimeoutMs;
+    private Boolean mongoWriteConcernJournal;
+    private List<String> mongoCompressors;
+    private boolean unitOfWorkTransactional = false;
+
+    private boolean geoPartitioningEnabled = false;
+    private int geoPartitionPrecision = 3;
+    private double geoPartitionHaloInMeters = 5000;
+    private boolean stateChangelogEnabled = false;
+    private String alertChangelogTopic = "map-service-alert-changelog";
+    private String positionChangelogTopic = "map-service-position-changelog";
+    private int changelogPartitions = 12;
+    private long changelogRestoreTimeoutMs = 30000;
+    private String kafkaGroupInstanceId;
+    private long kafkaSessionTimeoutMs = 45000;
+
+    private String replyTopic = "map-service-replies";
+    private String userNotificationTopic = "map-service-user-notifications";
+    private long producerLingerMs = 5;
+    private int producerBatchSizeBytes = 65536;
+    private String producerCompressionType = "lz4";
+
+    private String startupReportFile;
+
+    private boolean jfrContinuousRecording = true;
+    private long jfrEventThresholdMs = 1;
+    private long jfrMongoCommandThresholdMs = 5;
+    private boolean jfrStackTraces = false;
+    private long jfrMaxAgeSeconds = 900;
+    private long jfrMaxSizeMb = 64;
+    private String jfrOnDemandSettings = "profile";
+    private String jfrDumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "map-service-jfr").toString();
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.novus.map_service.configuration;
 
+import com.novus.map_service.geo.RegionRebalanceListener;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -13,6 +16,7 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @EnableKafka
@@ -21,6 +25,7 @@ import java.util.Map;
 public class KafkaConsumerConfig {
 
     private final EnvConfiguration envConfiguration;
+    private final RegionRebalanceListener regionRebalanceListener;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
@@ -37,6 +42,13 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
 
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                List.of(CooperativeStickyAssignor.class.getName(), RangeAssignor.class.getName()));
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) envConfiguration.getKafkaSessionTimeoutMs());
+        if (envConfiguration.getKafkaGroupInstanceId() != null && !envConfiguration.getKafkaGroupInstanceId().isBlank()) {
+            props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, envConfiguration.getKafkaGroupInstanceId());
+        }
+
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
@@ -47,6 +59,7 @@ public class KafkaConsumerConfig {
         factory.setConsumerFactory(consumerFactory());
 
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(regionRebalanceListener);
 
         factory.setConcurrency(3);
 
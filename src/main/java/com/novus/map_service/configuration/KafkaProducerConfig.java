@@ -0,0 +1,72 @@
+package com.novus.map_service.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@RequiredArgsConstructor
+public class KafkaProducerConfig {
+
+    private final EnvConfiguration envConfiguration;
+
+    @Bean
+    public ProducerFactory<String, byte[]> replyProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, envConfiguration.getKafkaBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, envConfiguration.getProducerLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, envConfiguration.getProducerBatchSizeBytes());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, envConfiguration.getProducerCompressionType());
+
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> replyKafkaTemplate() {
+        return new KafkaTemplate<>(replyProducerFactory());
+    }
+
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, envConfiguration.getKafkaBootstrapServers()));
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics changelogTopics() {
+        if (!envConfiguration.isStateChangelogEnabled()) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+                changelogTopic(envConfiguration.getAlertChangelogTopic()),
+                changelogTopic(envConfiguration.getPositionChangelogTopic())
+        );
+    }
+
+    private NewTopic changelogTopic(String name) {
+        return TopicBuilder.name(name)
+                .partitions(envConfiguration.getChangelogPartitions())
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .build();
+    }
+}
@@ -1,7 +1,18 @@
 package com.novus.map_service.configuration;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.novus.map_service.jfr.JfrMongoCommandListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,16 +20,25 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @Profile("!test")
 @RequiredArgsConstructor
 public class MongoConfiguration {
 
+    private static final int DEFAULT_MIN_POOL_SIZE = 10;
+    private static final long DEFAULT_MAX_WAIT_TIME_MS = 2000;
+    private static final long DEFAULT_MAX_CONNECTION_IDLE_TIME_MS = 60000;
+
     private final EnvConfiguration envConfiguration;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public MongoClient mongoClient() {
-        return MongoClients.create(envConfiguration.getMongoUri());
+        return MongoClients.create(mongoClientSettings());
     }
 
     @Bean
@@ -26,4 +46,86 @@ public class MongoConfiguration {
         return new MongoTemplate(new SimpleMongoClientDatabaseFactory(mongoClient(), envConfiguration.getDatabaseName()));
     }
 
+    private MongoClientSettings mongoClientSettings() {
+        ConnectionString connectionString = new ConnectionString(envConfiguration.getMongoUri());
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .applyToConnectionPoolSettings(pool -> {
+                    pool.minSize(firstNonNull(envConfiguration.getMongoMinPoolSize(),
+                            connectionString.getMinConnectionPoolSize(), DEFAULT_MIN_POOL_SIZE));
+                    pool.maxWaitTime(firstNonNull(envConfiguration.getMongoMaxWaitTimeMs(),
+                            toLong(connectionString.getMaxWaitTime()), DEFAULT_MAX_WAIT_TIME_MS), TimeUnit.MILLISECONDS);
+                    pool.maxConnectionIdleTime(firstNonNull(envConfiguration.getMongoMaxConnectionIdleTimeMs(),
+                            toLong(connectionString.getMaxConnectionIdleTime()), DEFAULT_MAX_CONNECTION_IDLE_TIME_MS), TimeUnit.MILLISECONDS);
+                    if (envConfiguration.getMongoMaxPoolSize() != null) {
+                        pool.maxSize(envConfiguration.getMongoMaxPoolSize());
+                    }
+                    if (envConfiguration.getMongoMaxConnecting() != null) {
+                        pool.maxConnecting(envConfiguration.getMongoMaxConnecting());
+                    }
+                    pool.addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry))
+                            .addConnectionPoolListener(new MongoPoolWaitListener(meterRegistry));
+                })
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry))
+                .addCommandListener(new JfrMongoCommandListener());
+
+        if (envConfiguration.getMongoReadPreference() != null) {
+            builder.readPreference(ReadPreference.valueOf(envConfiguration.getMongoReadPreference()));
+        }
+        if (envConfiguration.getMongoReadConcern() != null) {
+            builder.readConcern(new ReadConcern(ReadConcernLevel.fromString(envConfiguration.getMongoReadConcern())));
+        }
+        if (envConfiguration.getMongoWriteConcern() != null || envConfiguration.getMongoWriteConcernTimeoutMs() != null
+                || envConfiguration.getMongoWriteConcernJournal() != null) {
+            builder.writeConcern(writeConcern(connectionString));
+        }
+        if (envConfiguration.getMongoCompressors() != null) {
+            builder.compressorList(compressors());
+        } else if (connectionString.getCompressorList().isEmpty()) {
+            builder.compressorList(List.of(MongoCompressor.createZlibCompressor()));
+        }
+        return builder.build();
+    }
+
+    private WriteConcern writeConcern(ConnectionString connectionString) {
+        String value = envConfiguration.getMongoWriteConcern();
+        WriteConcern writeConcern;
+        if (value == null) {
+            writeConcern = connectionString.getWriteConcern() != null ? connectionString.getWriteConcern() : WriteConcern.ACKNOWLEDGED;
+        } else {
+            writeConcern = value.chars().allMatch(Character::isDigit)
+                    ? new WriteConcern(Integer.parseInt(value))
+                    : "majority".equalsIgnoreCase(value) ? WriteConcern.MAJORITY : WriteConcern.valueOf(value);
+            if (writeConcern == null) {
+                throw new IllegalArgumentException("Unknown Mongo write concern: " + value);
+            }
+        }
+        if (envConfiguration.getMongoWriteConcernTimeoutMs() != null) {
+            writeConcern = writeConcern.withWTimeout(envConfiguration.getMongoWriteConcernTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        if (envConfiguration.getMongoWriteConcernJournal() != null) {
+            writeConcern = writeConcern.withJournal(envConfiguration.getMongoWriteConcernJournal());
+        }
+        return writeConcern;
+    }
+
+    private List<MongoCompressor> compressors() {
+        return envConfiguration.getMongoCompressors().stream()
+                .map(name -> switch (name.toLowerCase(Locale.ROOT)) {
+                    case "zstd" -> MongoCompressor.createZstdCompressor();
+                    case "snappy" -> MongoCompressor.createSnappyCompressor();
+                    case "zlib" -> MongoCompressor.createZlibCompressor();
+                    default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+                })
+                .toList();
+    }
+
+    private static <T> T firstNonNull(T configured, T fromUri, T fallback) {
+        return configured != null ? configured : fromUri != null ? fromUri : fallback;
+    }
+
+    private static Long toLong(Integer value) {
+        return value != null ? value.longValue() : null;
+    }
+
 }
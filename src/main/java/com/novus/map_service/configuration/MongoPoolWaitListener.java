@@ -0,0 +1,51 @@
+package com.novus.map_service.configuration;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+public class MongoPoolWaitListener implements ConnectionPoolListener {
+
+    private final Timer checkoutWaitTimer;
+    private final Counter checkedOutCounter;
+    private final Counter checkoutTimeoutCounter;
+    private final Counter checkoutFailedCounter;
+
+    public MongoPoolWaitListener(MeterRegistry meterRegistry) {
+        this.checkoutWaitTimer = Timer.builder("mongodb.driver.pool.checkout.wait")
+                .description("Time spent waiting for a connection from the Mongo pool")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.checkedOutCounter = Counter.builder("mongodb.driver.pool.checkouts")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.checkoutTimeoutCounter = Counter.builder("mongodb.driver.pool.checkouts")
+                .tag("outcome", "timeout")
+                .register(meterRegistry);
+        this.checkoutFailedCounter = Counter.builder("mongodb.driver.pool.checkouts")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkoutWaitTimer.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        checkedOutCounter.increment();
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkoutWaitTimer.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            checkoutTimeoutCounter.increment();
+        } else {
+            checkoutFailedCounter.increment();
+        }
+    }
+
+}
@@ -17,9 +17,11 @@ import java.util.Optional;
 public class AdminDashboardDaoUtils {
 
     private final AdminDashboardDao<AdminDashboard> adminDashboardDao;
+    private final UnitOfWorkManager unitOfWorkManager;
 
-    public AdminDashboardDaoUtils(MongoTemplate mongoTemplate) {
+    public AdminDashboardDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager) {
         this.adminDashboardDao = new AdminDashboardDao<>(mongoTemplate);
+        this.unitOfWorkManager = unitOfWorkManager;
     }
 
     public void save(String adminDashboardId, Map<Integer, Double> appRatingByNumberOfRate,
@@ -27,7 +29,7 @@ public class AdminDashboardDaoUtils {
                      UserActivityMetricsResponse userActivityMetrics, List<HourlyRouteRecalculationResponse> routeRecalculations,
                      Double incidentConfirmationRate, Map<String, Integer> incidentsByType, int totalRoutesProposed
     ) {
-        adminDashboardDao.upsert(
+        Runnable upsert = () -> adminDashboardDao.upsert(
                 adminDashboardId,
                 appRatingByNumberOfRate,
                 topContributors,
@@ -38,6 +40,9 @@ public class AdminDashboardDaoUtils {
                 incidentsByType,
                 totalRoutesProposed
         );
+        if (!unitOfWorkManager.defer(upsert)) {
+            upsert.run();
+        }
     }
 
     public Optional<AdminDashboard> find() {
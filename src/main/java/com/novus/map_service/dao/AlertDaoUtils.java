@@ -2,26 +2,105 @@ package com.novus.map_service.dao;
 
 import com.novus.database_utils.Alert.AlertDao;
 import com.novus.shared_models.common.Alert.Alert;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
 public class AlertDaoUtils {
 
+    private static final String CONFIRMATIONS = "confirmations";
+    private static final String REJECTIONS = "rejections";
+
     private final AlertDao<Alert> alertDao;
+    private final MongoTemplate mongoTemplate;
+    private final UnitOfWorkManager unitOfWorkManager;
 
-    public AlertDaoUtils(MongoTemplate mongoTemplate) {
+    public AlertDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager) {
         this.alertDao = new AlertDao<>(mongoTemplate);
+        this.mongoTemplate = mongoTemplate;
+        this.unitOfWorkManager = unitOfWorkManager;
     }
 
     public void save(Alert alert) {
-        alertDao.save(alert);
+        if (!unitOfWorkManager.deferSave(alert.getId(), alert)) {
+            alertDao.save(alert);
+        }
+    }
+
+    public void recordVote(Alert alert, boolean confirmed) {
+        Document operations = new Update()
+                .set("expiresAt", alert.getExpiresAt())
+                .set("updatedAt", alert.getUpdatedAt())
+                .inc(confirmed ? CONFIRMATIONS : REJECTIONS, 1)
+                .getUpdateObject();
+        if (!unitOfWorkManager.deferFieldUpdate(Alert.class, alert.getId(), operations)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(alert.getId())),
+                    Update.fromDocument(operations), Alert.class);
+        }
+    }
+
+    public Map<String, AlertVotes> findVotes(Collection<String> alertIds) {
+        Map<String, AlertVotes> votes = new HashMap<>();
+        if (alertIds.isEmpty()) {
+            return votes;
+        }
+        Query query = Query.query(Criteria.where("_id").in(alertIds)
+                .orOperator(Criteria.where(CONFIRMATIONS).exists(true), Criteria.where(REJECTIONS).exists(true)));
+        query.fields().include(CONFIRMATIONS, REJECTIONS);
+        for (Document document : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Alert.class))) {
+            votes.put(String.valueOf(document.get("_id")),
+                    new AlertVotes(countOf(document, CONFIRMATIONS), countOf(document, REJECTIONS)));
+        }
+        return votes;
     }
 
     public Optional<Alert> findById(String id) {
-        return alertDao.findById(id, Alert.class);
+        return unitOfWorkManager.findById(Alert.class, id, () -> alertDao.findById(id, Alert.class));
+    }
+
+    public List<Alert> findAllActive(Date now) {
+        return mongoTemplate.find(Query.query(Criteria.where("expiresAt").gt(now)), Alert.class);
+    }
+
+    public List<Alert> findActiveWithin(Date now, double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude) {
+        Query query = Query.query(Criteria.where("expiresAt").gt(now)
+                .and("location.latitude").gte(minLatitude).lte(maxLatitude)
+                .and("location.longitude").gte(minLongitude).lte(maxLongitude));
+        return mongoTemplate.find(query, Alert.class);
+    }
+
+    public List<Alert> findAllUpdatedSince(Date since) {
+        return mongoTemplate.find(Query.query(Criteria.where("updatedAt").gte(since)), Alert.class);
+    }
+
+    public List<Alert> findExpiredBefore(Date cutoff, int limit) {
+        Query query = Query.query(Criteria.where("expiresAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "expiresAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, Alert.class);
+    }
+
+    public long deleteExpiredByIds(Collection<String> ids, Date cutoff) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("expiresAt").lt(cutoff));
+        return mongoTemplate.remove(query, Alert.class).getDeletedCount();
+    }
+
+    private static int countOf(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number.intValue() : 0;
     }
 
 }
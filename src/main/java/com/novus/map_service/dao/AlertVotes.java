@@ -0,0 +1,4 @@
+package com.novus.map_service.dao;
+
+public record AlertVotes(int confirmations, int rejections) {
+}
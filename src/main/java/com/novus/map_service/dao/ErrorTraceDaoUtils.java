@@ -0,0 +1,49 @@
+package com.novus.map_service.dao;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+@Component
+public class ErrorTraceDaoUtils {
+
+    private static final String COLLECTION_NAME = "ERROR_TRACES";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ErrorTraceDaoUtils(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void upsertTrace(String fingerprint, String service, String exceptionType, String stackTrace, long occurrences, Date seenAt) {
+        Update update = new Update()
+                .setOnInsert("service", service)
+                .setOnInsert("exceptionType", exceptionType)
+                .set("stackTrace", stackTrace)
+                .setOnInsert("firstSeenAt", seenAt)
+                .set("lastSeenAt", seenAt)
+                .inc("occurrences", occurrences);
+
+        mongoTemplate.upsert(byFingerprint(fingerprint), update, COLLECTION_NAME);
+    }
+
+    public void incrementOccurrences(String fingerprint, String service, String exceptionType, long occurrences, Date seenAt) {
+        Update update = new Update()
+                .setOnInsert("service", service)
+                .setOnInsert("exceptionType", exceptionType)
+                .setOnInsert("firstSeenAt", seenAt)
+                .set("lastSeenAt", seenAt)
+                .inc("occurrences", occurrences);
+
+        mongoTemplate.upsert(byFingerprint(fingerprint), update, COLLECTION_NAME);
+    }
+
+    private Query byFingerprint(String fingerprint) {
+        return Query.query(Criteria.where("_id").is(fingerprint));
+    }
+
+}
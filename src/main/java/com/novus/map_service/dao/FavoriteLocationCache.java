@@ -0,0 +1,92 @@
+package com.novus.map_service.dao;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Location.Location;
+import com.novus.shared_models.common.User.User;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class FavoriteLocationCache {
+
+    private final LocationDaoUtils locationDaoUtils;
+    private final Map<String, CachedFavorites> favoritesByUserId;
+
+    public FavoriteLocationCache(LocationDaoUtils locationDaoUtils, EnvConfiguration envConfiguration) {
+        this.locationDaoUtils = locationDaoUtils;
+        int maxUsers = envConfiguration.getFavoriteLocationCacheMaxUsers();
+        this.favoritesByUserId = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFavorites> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public List<Location> getFavorites(User user) {
+        List<String> locationIds = user.getFavoriteLocationIds() != null ? user.getFavoriteLocationIds() : List.of();
+
+        CachedFavorites cached = favoritesByUserId.get(user.getId());
+        if (cached != null && cached.locationIds().equals(locationIds)) {
+            return cached.locations();
+        }
+
+        Map<String, Location> locationsById = locationDaoUtils.findAllByIds(locationIds).stream()
+                .collect(Collectors.toMap(Location::getId, Function.identity()));
+
+        List<Location> locations = new ArrayList<>(locationIds.size());
+        for (String locationId : locationIds) {
+            Location location = locationsById.get(locationId);
+            if (location != null) {
+                locations.add(location);
+            }
+        }
+
+        CachedFavorites loaded = new CachedFavorites(List.copyOf(locationIds), List.copyOf(locations));
+        favoritesByUserId.put(user.getId(), loaded);
+        return loaded.locations();
+    }
+
+    public void onLocationSaved(String userId, Location location) {
+        favoritesByUserId.computeIfPresent(userId, (id, cached) -> {
+            List<String> locationIds = new ArrayList<>(cached.locationIds());
+            Map<String, Location> locationsById = new HashMap<>();
+            cached.locations().forEach(existing -> locationsById.put(existing.getId(), existing));
+
+            if (!locationIds.contains(location.getId())) {
+                locationIds.add(location.getId());
+            }
+            locationsById.put(location.getId(), location);
+
+            List<Location> locations = locationIds.stream()
+                    .map(locationsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new CachedFavorites(List.copyOf(locationIds), locations);
+        });
+    }
+
+    public void onLocationDeleted(String userId, String locationId) {
+        favoritesByUserId.computeIfPresent(userId, (id, cached) -> new CachedFavorites(
+                cached.locationIds().stream().filter(existing -> !existing.equals(locationId)).toList(),
+                cached.locations().stream().filter(existing -> !existing.getId().equals(locationId)).toList()
+        ));
+    }
+
+    public void evict(String userId) {
+        favoritesByUserId.remove(userId);
+    }
+
+    private record CachedFavorites(List<String> locationIds, List<Location> locations) {
+    }
+
+}
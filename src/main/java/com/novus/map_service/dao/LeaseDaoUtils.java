@@ -0,0 +1,44 @@
+package com.novus.map_service.dao;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+@Component
+public class LeaseDaoUtils {
+
+    private static final String COLLECTION_NAME = "LEASES";
+
+    private final MongoTemplate mongoTemplate;
+
+    public LeaseDaoUtils(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean tryAcquire(String name, String holder, Date now, Duration duration) {
+        Query query = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("holder").is(holder)));
+        Update update = new Update()
+                .set("holder", holder)
+                .set("renewedAt", now)
+                .set("expiresAt", new Date(now.getTime() + duration.toMillis()));
+
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION_NAME);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(String name, String holder) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("holder").is(holder)), COLLECTION_NAME);
+    }
+
+}
@@ -3,28 +3,58 @@ package com.novus.map_service.dao;
 import com.novus.database_utils.Location.LocationDao;
 import com.novus.shared_models.common.Location.Location;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
 public class LocationDaoUtils {
 
+    private static final String[] FAVORITE_FIELDS = {
+            "name", "locationType", "formattedAddress", "street", "city", "postalCode", "country", "coordinates", "userId"
+    };
+
     private final LocationDao<Location> locationDao;
+    private final MongoTemplate mongoTemplate;
+    private final UnitOfWorkManager unitOfWorkManager;
 
-    public LocationDaoUtils(MongoTemplate mongoTemplate) {
+    public LocationDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager) {
         this.locationDao = new LocationDao<>(mongoTemplate);
+        this.mongoTemplate = mongoTemplate;
+        this.unitOfWorkManager = unitOfWorkManager;
     }
 
     public void save(Location location) {
-        locationDao.save(location);
+        if (!unitOfWorkManager.deferSave(location.getId(), location)) {
+            locationDao.save(location);
+        }
     }
 
     public void delete(Location location) {
-        locationDao.delete(location);
+        if (!unitOfWorkManager.deferDelete(Location.class, location.getId())) {
+            locationDao.delete(location);
+        }
     }
 
     public Optional<Location> findById(String locationId) {
-        return locationDao.findById(locationId, Location.class);
+        return unitOfWorkManager.findById(Location.class, locationId, () -> locationDao.findById(locationId, Location.class));
+    }
+
+    public List<Location> findAllByIds(Collection<String> locationIds) {
+        if (locationIds == null || locationIds.isEmpty()) {
+            return List.of();
+        }
+
+        return mongoTemplate.find(favoritesQuery(locationIds), Location.class);
+    }
+
+    public static Query favoritesQuery(Collection<String> locationIds) {
+        Query query = Query.query(Criteria.where("_id").in(locationIds));
+        query.fields().include(FAVORITE_FIELDS);
+        return query;
     }
 }
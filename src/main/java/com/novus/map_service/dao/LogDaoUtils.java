@@ -1,22 +1,117 @@
 package com.novus.map_service.dao;
 
-import com.novus.database_utils.Log.LogDao;
+import com.novus.map_service.configuration.EnvConfiguration;
 import com.novus.shared_models.common.Log.Log;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.CollectionOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
 @Component
-public class LogDaoUtils {
+public class LogDaoUtils implements SmartLifecycle {
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration logRetention;
+    private final Duration rollupRetention;
+    private volatile boolean running;
+
+    public LogDaoUtils(MongoTemplate mongoTemplate, EnvConfiguration envConfiguration) {
+        this.mongoTemplate = mongoTemplate;
+        this.logRetention = Duration.ofDays(envConfiguration.getLogRetentionDays());
+        this.rollupRetention = Duration.ofDays(envConfiguration.getLogRollupRetentionDays());
+    }
+
+    @Override
+    public void start() {
+        ensureCollections();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
 
-    private final LogDao<Log> logDao;
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2000;
+    }
+
+    public void ensureCollections() {
+        try {
+            if (!mongoTemplate.collectionExists(Log.class)) {
+                mongoTemplate.createCollection(Log.class, CollectionOptions.empty()
+                        .timeSeries(CollectionOptions.TimeSeriesOptions.timeSeries("timestamp")
+                                .metaField("service")
+                                .granularity(Granularity.MINUTES))
+                        .expireAfter(logRetention));
+                log.info("Created time-series log collection with {} days retention", logRetention.toDays());
+            } else {
+                mongoTemplate.indexOps(Log.class).ensureIndex(new Index()
+                        .on("timestamp", Sort.Direction.ASC)
+                        .expire(logRetention)
+                        .named("timestamp_ttl"));
+            }
+
+            mongoTemplate.indexOps(Log.class).ensureIndex(new Index()
+                    .on("action", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.DESC)
+                    .named("action_timestamp"));
 
-    public LogDaoUtils(MongoTemplate mongoTemplate) {
-        this.logDao = new LogDao<>(mongoTemplate);
+            mongoTemplate.indexOps(LogHourlyCounts.COLLECTION_NAME).ensureIndex(new Index()
+                    .on("hour", Sort.Direction.ASC)
+                    .expire(rollupRetention)
+                    .named("hour_ttl"));
+        } catch (Exception e) {
+            log.warn("Unable to prepare log collections: {}", e.getMessage());
+        }
     }
 
     public void save(Log log) {
-        logDao.save(log);
+        mongoTemplate.insert(log);
     }
 
-}
+    public void saveAll(List<Log> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        if (logs.size() == 1) {
+            save(logs.get(0));
+            return;
+        }
+
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Log.class)
+                .insert(logs)
+                .execute();
+    }
+
+    public void incrementHourlyCounts(Map<LogHourlyCounts.Bucket, Long> counts) {
+        Map<String, Update> updatesByBucket = LogHourlyCounts.updatesByBucket(counts);
+        if (updatesByBucket.isEmpty()) {
+            return;
+        }
 
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LogHourlyCounts.COLLECTION_NAME);
+        updatesByBucket.forEach((bucketId, update) -> bulkOperations.upsert(Query.query(Criteria.where("_id").is(bucketId)), update));
+        bulkOperations.execute();
+    }
+
+}
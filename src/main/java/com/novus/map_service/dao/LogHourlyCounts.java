@@ -0,0 +1,64 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Log.LogLevel;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class LogHourlyCounts {
+
+    public static final String COLLECTION_NAME = "LOG_HOURLY_COUNTS";
+
+    private static final long HOUR_IN_MILLIS = 3_600_000L;
+
+    private LogHourlyCounts() {
+    }
+
+    public static Bucket bucketOf(String service, String action, LogLevel level, Date timestamp) {
+        return new Bucket(service, action, String.valueOf(level),
+                new Date(timestamp.getTime() / HOUR_IN_MILLIS * HOUR_IN_MILLIS));
+    }
+
+    public static Map<String, Update> updatesByBucket(Map<Bucket, Long> counts) {
+        Map<String, HourlyCount> countsByBucket = new HashMap<>();
+        counts.forEach((bucket, count) -> {
+            String bucketId = bucket.service() + "|" + bucket.action() + "|" + bucket.hour().getTime();
+            HourlyCount hourlyCount = countsByBucket.computeIfAbsent(bucketId,
+                    id -> new HourlyCount(bucket.service(), bucket.action(), bucket.hour()));
+            hourlyCount.total += count;
+            hourlyCount.byLevel.merge(bucket.level(), count, Long::sum);
+        });
+
+        Map<String, Update> updatesByBucket = new HashMap<>(countsByBucket.size());
+        countsByBucket.forEach((bucketId, count) -> {
+            Update update = new Update()
+                    .setOnInsert("service", count.service)
+                    .setOnInsert("action", count.action)
+                    .setOnInsert("hour", count.hour)
+                    .inc("count", count.total);
+            count.byLevel.forEach((level, levelCount) -> update.inc("levels." + level, levelCount));
+            updatesByBucket.put(bucketId, update);
+        });
+        return updatesByBucket;
+    }
+
+    public record Bucket(String service, String action, String level, Date hour) {
+    }
+
+    private static final class HourlyCount {
+        private final String service;
+        private final String action;
+        private final Date hour;
+        private final Map<String, Long> byLevel = new HashMap<>();
+        private long total;
+
+        private HourlyCount(String service, String action, Date hour) {
+            this.service = service;
+            this.action = action;
+            this.hour = hour;
+        }
+    }
+
+}
@@ -2,20 +2,96 @@ package com.novus.map_service.dao;
 
 import com.novus.database_utils.Route.RouteDao;
 import com.novus.shared_models.common.Route.Route;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Slf4j
 @Component
 public class RouteDaoUtils {
 
+    private static final String[] SUMMARY_FIELDS = {
+            "startAddress", "endAddress", "kilometersDistance", "estimatedDurationInSeconds", "createdAt"
+    };
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+    private static final int STREAM_BATCH_SIZE = 200;
+
     private final RouteDao<Route> routeDao;
+    private final MongoTemplate mongoTemplate;
+    private final UnitOfWorkManager unitOfWorkManager;
 
-    public RouteDaoUtils(MongoTemplate mongoTemplate) {
+    public RouteDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager) {
         this.routeDao = new RouteDao<>(mongoTemplate);
+        this.mongoTemplate = mongoTemplate;
+        this.unitOfWorkManager = unitOfWorkManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(Route.class).ensureIndex(new Index()
+                    .on("userId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("userId_createdAt_id"));
+        } catch (Exception e) {
+            log.warn("Unable to create route history index: {}", e.getMessage());
+        }
     }
 
     public void save(Route route) {
-        routeDao.save(route);
+        if (!unitOfWorkManager.deferSave(route.getId(), route)) {
+            routeDao.save(route);
+        }
+    }
+
+    public Optional<Route> findById(String routeId) {
+        return unitOfWorkManager.findById(Route.class, routeId,
+                () -> Optional.ofNullable(mongoTemplate.findById(routeId, Route.class)));
+    }
+
+    public RouteHistoryPage findHistoryPage(String userId, RouteHistoryCursor after, int limit) {
+        Query query = historyQuery(userId, after).limit(limit + 1);
+        List<Route> routes = mongoTemplate.find(query, Route.class);
+
+        if (routes.size() <= limit) {
+            return new RouteHistoryPage(routes, null);
+        }
+
+        List<Route> page = routes.subList(0, limit);
+        return new RouteHistoryPage(page, RouteHistoryCursor.after(page.get(limit - 1)).encode());
+    }
+
+    public Stream<Route> streamHistory(String userId) {
+        Query query = historyQuery(userId, null).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Route.class);
+    }
+
+    public static Query historyQuery(String userId, RouteHistoryCursor after) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (after != null && after.createdAt() != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.routeId()),
+                    Criteria.where("createdAt").is(null)
+            );
+        } else if (after != null) {
+            criteria = criteria.and("createdAt").is(null).and("_id").lt(after.routeId());
+        }
+
+        Query query = Query.query(criteria).with(HISTORY_SORT);
+        query.fields().include(SUMMARY_FIELDS);
+        return query;
     }
 
 }
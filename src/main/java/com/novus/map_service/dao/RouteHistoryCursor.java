@@ -0,0 +1,33 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Route.Route;
+
+import java.util.Date;
+
+public record RouteHistoryCursor(Date createdAt, String routeId) {
+
+    private static final char SEPARATOR = '_';
+
+    public static RouteHistoryCursor after(Route route) {
+        return new RouteHistoryCursor(route.getCreatedAt(), route.getId());
+    }
+
+    public static RouteHistoryCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+        int separator = encoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed route history cursor: " + encoded);
+        }
+        return new RouteHistoryCursor(
+                separator > 0 ? new Date(Long.parseLong(encoded.substring(0, separator))) : null,
+                encoded.substring(separator + 1)
+        );
+    }
+
+    public String encode() {
+        return (createdAt != null ? String.valueOf(createdAt.getTime()) : "") + SEPARATOR + routeId;
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.Route.Route;
+
+import java.util.List;
+
+public record RouteHistoryPage(List<Route> routes, String nextCursor) {
+}
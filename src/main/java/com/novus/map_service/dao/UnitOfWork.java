@@ -0,0 +1,128 @@
+package com.novus.map_service.dao;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+final class UnitOfWork {
+
+    private final Map<Class<?>, Map<String, Object>> savesByType = new LinkedHashMap<>();
+    private final Map<Class<?>, Set<String>> deletesByType = new LinkedHashMap<>();
+    private final Map<Class<?>, Map<String, Document>> fieldUpdatesByType = new LinkedHashMap<>();
+    private final List<Runnable> deferredOperations = new ArrayList<>();
+    private final List<Runnable> afterCommitCallbacks = new ArrayList<>();
+
+    void registerSave(String id, Object entity) {
+        Class<?> type = entity.getClass();
+        Set<String> deletes = deletesByType.get(type);
+        if (deletes != null) {
+            deletes.remove(id);
+        }
+        savesByType.computeIfAbsent(type, key -> new LinkedHashMap<>()).put(id, entity);
+    }
+
+    void registerFieldUpdate(Class<?> type, String id, Document operations) {
+        Document pending = fieldUpdatesByType.computeIfAbsent(type, key -> new LinkedHashMap<>())
+                .computeIfAbsent(id, key -> new Document());
+        operations.forEach((operator, fields) -> {
+            Document pendingFields = (Document) pending.computeIfAbsent(operator, key -> new Document());
+            ((Document) fields).forEach((path, value) ->
+                    pendingFields.merge(path, value, (previous, next) -> merge(operator, previous, next)));
+        });
+    }
+
+    void registerDelete(Class<?> type, String id) {
+        Map<String, Object> saves = savesByType.get(type);
+        if (saves != null) {
+            saves.remove(id);
+        }
+        Map<String, Document> fieldUpdates = fieldUpdatesByType.get(type);
+        if (fieldUpdates != null) {
+            fieldUpdates.remove(id);
+        }
+        deletesByType.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+    }
+
+    void defer(Runnable operation) {
+        deferredOperations.add(operation);
+    }
+
+    void afterCommit(Runnable callback) {
+        afterCommitCallbacks.add(callback);
+    }
+
+    <T> Optional<T> findSaved(Class<T> type, String id) {
+        Map<String, Object> saves = savesByType.get(type);
+        return saves == null ? Optional.empty() : Optional.ofNullable(type.cast(saves.get(id)));
+    }
+
+    boolean isDeleted(Class<?> type, String id) {
+        Set<String> deletes = deletesByType.get(type);
+        return deletes != null && deletes.contains(id);
+    }
+
+    Map<Class<?>, Map<String, Object>> getSavesByType() {
+        return savesByType;
+    }
+
+    Map<Class<?>, Set<String>> getDeletesByType() {
+        return deletesByType;
+    }
+
+    Map<Class<?>, Map<String, Document>> getFieldUpdatesByType() {
+        return fieldUpdatesByType;
+    }
+
+    List<Runnable> getDeferredOperations() {
+        return deferredOperations;
+    }
+
+    List<Runnable> getAfterCommitCallbacks() {
+        return afterCommitCallbacks;
+    }
+
+    boolean hasWrites(Class<?> type, String id) {
+        Map<String, Object> saves = savesByType.get(type);
+        Map<String, Document> fieldUpdates = fieldUpdatesByType.get(type);
+        return saves != null && saves.containsKey(id)
+                || fieldUpdates != null && fieldUpdates.containsKey(id)
+                || isDeleted(type, id);
+    }
+
+    boolean isEmpty() {
+        return savesByType.values().stream().allMatch(Map::isEmpty)
+                && deletesByType.values().stream().allMatch(Set::isEmpty)
+                && fieldUpdatesByType.values().stream().allMatch(Map::isEmpty)
+                && deferredOperations.isEmpty();
+    }
+
+    private static Object merge(String operator, Object previous, Object next) {
+        if ("$inc".equals(operator)) {
+            Number left = (Number) previous;
+            Number right = (Number) next;
+            if (left instanceof Integer && right instanceof Integer) {
+                return left.intValue() + right.intValue();
+            }
+            if (left instanceof Double || right instanceof Double) {
+                return left.doubleValue() + right.doubleValue();
+            }
+            return left.longValue() + right.longValue();
+        }
+        if ("$push".equals(operator) && previous instanceof Document pending && next instanceof Document added
+                && pending.containsKey("$each") && added.containsKey("$each")) {
+            List<Object> values = new ArrayList<>((List<?>) pending.get("$each"));
+            values.addAll((List<?>) added.get("$each"));
+            Document merged = new Document(added);
+            merged.put("$each", values);
+            return merged;
+        }
+        return next;
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.novus.map_service.dao;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.novus.map_service.configuration.EnvConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class UnitOfWorkManager {
+
+    private final ThreadLocal<UnitOfWork> currentUnitOfWork = new ThreadLocal<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer commitTimer;
+    private final Counter partialCommitCounter;
+
+    public UnitOfWorkManager(MongoTemplate mongoTemplate, EnvConfiguration envConfiguration, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = envConfiguration.isUnitOfWorkTransactional()
+                ? new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()))
+                : null;
+        this.commitTimer = Timer.builder("map.unitofwork.commit")
+                .description("Time spent flushing the writes recorded while processing a message")
+                .register(meterRegistry);
+        this.partialCommitCounter = Counter.builder("map.unitofwork.partial")
+                .description("Non-transactional commits that failed after some of their writes were applied")
+                .register(meterRegistry);
+    }
+
+    public void begin() {
+        currentUnitOfWork.set(new UnitOfWork());
+    }
+
+    public void commit() {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        currentUnitOfWork.remove();
+        if (unitOfWork == null) {
+            return;
+        }
+
+        if (!unitOfWork.isEmpty()) {
+            commitTimer.record(() -> {
+                if (transactionTemplate != null) {
+                    transactionTemplate.executeWithoutResult(status -> flush(unitOfWork, new ArrayList<>()));
+                } else {
+                    flushReportingPartialWrites(unitOfWork);
+                }
+            });
+        }
+
+        for (Runnable callback : unitOfWork.getAfterCommitCallbacks()) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.error("After-commit callback failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    public void discard() {
+        currentUnitOfWork.remove();
+    }
+
+    public void afterCommit(Runnable callback) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            callback.run();
+            return;
+        }
+        unitOfWork.afterCommit(callback);
+    }
+
+    boolean deferSave(String id, Object entity) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return false;
+        }
+        unitOfWork.registerSave(id, entity);
+        return true;
+    }
+
+    boolean deferDelete(Class<?> type, String id) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return false;
+        }
+        unitOfWork.registerDelete(type, id);
+        return true;
+    }
+
+    boolean deferFieldUpdate(Class<?> type, String id, Document operations) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return false;
+        }
+        unitOfWork.registerFieldUpdate(type, id, operations);
+        return true;
+    }
+
+    public boolean hasPendingWrites(Class<?> type, String id) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        return unitOfWork != null && unitOfWork.hasWrites(type, id);
+    }
+
+    boolean defer(Runnable operation) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return false;
+        }
+        unitOfWork.defer(operation);
+        return true;
+    }
+
+    <T> Optional<T> findById(Class<T> type, String id, Supplier<Optional<T>> loader) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return loader.get();
+        }
+        if (unitOfWork.isDeleted(type, id)) {
+            return Optional.empty();
+        }
+        Optional<T> pending = unitOfWork.findSaved(type, id);
+        return pending.isPresent() ? pending : loader.get();
+    }
+
+    private void flushReportingPartialWrites(UnitOfWork unitOfWork) {
+        List<String> written = new ArrayList<>();
+        try {
+            flush(unitOfWork, written);
+        } catch (RuntimeException e) {
+            if (written.isEmpty() && !appliedAnyWrite(e)) {
+                throw e;
+            }
+            partialCommitCounter.increment();
+            log.error("Unit of work partially applied: {} written before the commit failed: {}", written, e.getMessage());
+            throw new IllegalStateException(String.format(
+                    "Unit of work partially applied, %s written before the commit failed: %s", written, e.getMessage()), e);
+        }
+    }
+
+    private void flush(UnitOfWork unitOfWork, List<String> written) {
+        for (Map.Entry<Class<?>, Map<String, Object>> saves : unitOfWork.getSavesByType().entrySet()) {
+            if (saves.getValue().isEmpty()) {
+                continue;
+            }
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, saves.getKey());
+            saves.getValue().forEach((id, entity) ->
+                    bulkOperations.replaceOne(byId(id), entity, FindAndReplaceOptions.options().upsert()));
+            bulkOperations.execute();
+            written.add(mongoTemplate.getCollectionName(saves.getKey()));
+        }
+
+        for (Map.Entry<Class<?>, Map<String, Document>> fieldUpdates : unitOfWork.getFieldUpdatesByType().entrySet()) {
+            if (fieldUpdates.getValue().isEmpty()) {
+                continue;
+            }
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, fieldUpdates.getKey());
+            fieldUpdates.getValue().forEach((id, operations) ->
+                    bulkOperations.updateOne(byId(id), Update.fromDocument(operations)));
+            bulkOperations.execute();
+            written.add(mongoTemplate.getCollectionName(fieldUpdates.getKey()));
+        }
+
+        for (Map.Entry<Class<?>, Set<String>> deletes : unitOfWork.getDeletesByType().entrySet()) {
+            if (deletes.getValue().isEmpty()) {
+                continue;
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(deletes.getValue())), deletes.getKey());
+            written.add(mongoTemplate.getCollectionName(deletes.getKey()));
+        }
+
+        for (Runnable operation : unitOfWork.getDeferredOperations()) {
+            operation.run();
+            written.add("deferred operation");
+        }
+        log.debug("Committed unit of work: {} collections written, {} deferred operations",
+                unitOfWork.getSavesByType().size() + unitOfWork.getDeletesByType().size(),
+                unitOfWork.getDeferredOperations().size());
+    }
+
+    private static boolean appliedAnyWrite(RuntimeException e) {
+        if (!(e instanceof BulkOperationException bulkFailure) || !bulkFailure.getResult().wasAcknowledged()) {
+            return false;
+        }
+        BulkWriteResult result = bulkFailure.getResult();
+        return result.getInsertedCount() + result.getMatchedCount() + result.getDeletedCount() + result.getUpserts().size() > 0;
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.novus.map_service.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.User.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class UserCache {
+
+    private final UserDaoUtils userDaoUtils;
+    private final ObjectMapper objectMapper;
+    private final Map<String, User> usersById;
+
+    public UserCache(UserDaoUtils userDaoUtils, ObjectMapper objectMapper, EnvConfiguration envConfiguration) {
+        this.userDaoUtils = userDaoUtils;
+        this.objectMapper = objectMapper;
+        int maxUsers = envConfiguration.getUserCacheMaxUsers();
+        this.usersById = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public Optional<User> resolve(String userId, long version) {
+        User cached = usersById.get(userId);
+        if (cached != null && versionOf(cached) >= version) {
+            return Optional.of(copyOf(cached));
+        }
+
+        Optional<User> loaded = userDaoUtils.findById(userId);
+        loaded.ifPresentOrElse(user -> usersById.put(userId, copyOf(user)), () -> usersById.remove(userId));
+        return loaded;
+    }
+
+    public void evict(String userId) {
+        usersById.remove(userId);
+    }
+
+    private User copyOf(User user) {
+        return objectMapper.convertValue(user, User.class);
+    }
+
+    private static long versionOf(User user) {
+        return user.getUpdatedAt() != null ? user.getUpdatedAt().getTime() : 0;
+    }
+
+}
@@ -1,27 +1,82 @@
 package com.novus.map_service.dao;
 
 import com.novus.database_utils.User.UserDao;
+import com.novus.map_service.configuration.DateConfiguration;
 import com.novus.shared_models.common.User.User;
+import org.bson.Document;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.Optional;
 
 @Component
 public class UserDaoUtils {
 
     private final UserDao<User> userDao;
+    private final MongoTemplate mongoTemplate;
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final DateConfiguration dateConfiguration;
 
-    public UserDaoUtils(MongoTemplate mongoTemplate) {
+    public UserDaoUtils(MongoTemplate mongoTemplate, UnitOfWorkManager unitOfWorkManager,
+                        DateConfiguration dateConfiguration) {
         this.userDao = new UserDao<>(mongoTemplate);
+        this.mongoTemplate = mongoTemplate;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.dateConfiguration = dateConfiguration;
     }
 
     public void save(User user) {
-        userDao.save(user);
+        if (!unitOfWorkManager.deferSave(user.getId(), user)) {
+            userDao.save(user);
+        }
+    }
+
+    public void saveFields(User user, String... fields) {
+        update(user, new Update(), fields);
+    }
+
+    public void update(User user, Update update, String... fields) {
+        if (fields.length > 0) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(user, document);
+            for (String field : fields) {
+                update.set(field, valueAt(document, field));
+            }
+        }
+
+        Date updatedAt = dateConfiguration.newDate();
+        user.setUpdatedAt(updatedAt);
+        update.set("updatedAt", updatedAt);
+
+        Document operations = update.getUpdateObject();
+        if (!unitOfWorkManager.deferFieldUpdate(User.class, user.getId(), operations)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                    Update.fromDocument(operations), User.class);
+        }
+    }
+
+    public void refreshRank(String userId) {
+        Runnable refresh = () -> mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                UserRanks.RANK_FROM_TRUST_SCORE, User.class);
+        if (!unitOfWorkManager.defer(refresh)) {
+            refresh.run();
+        }
     }
 
     public Optional<User> findById(String id) {
-        return userDao.findById(id, User.class);
+        return unitOfWorkManager.findById(User.class, id, () -> userDao.findById(id, User.class));
+    }
+
+    private static Object valueAt(Document document, String path) {
+        Object value = document;
+        for (String segment : path.split("\\.")) {
+            value = value instanceof Document nested ? nested.get(segment) : null;
+        }
+        return value;
     }
 
-}
\ No newline at end of file
+}
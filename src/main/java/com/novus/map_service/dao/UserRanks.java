@@ -0,0 +1,52 @@
+package com.novus.map_service.dao;
+
+import com.novus.shared_models.common.User.User;
+import com.novus.shared_models.common.User.UserRank;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class UserRanks {
+
+    private static final List<Tier> TIERS = List.of(
+            new Tier(50, UserRank.NAVIGATOR_NOVICE, "https://i.ibb.co/dw3g2VJg/Season-2023-Emerald.webp"),
+            new Tier(60, UserRank.ROAD_EXPLORER, "https://i.ibb.co/46pfzD8/Diamond-aca4ca7.png"),
+            new Tier(70, UserRank.TRAFFIC_SCOUT, "https://i.ibb.co/gMDTPvTF/Season-2022-Master.webp"),
+            new Tier(80, UserRank.ROUTE_MASTER, "https://i.ibb.co/cSTHVtcv/Season-2023-Grandmaster.webp"),
+            new Tier(Integer.MAX_VALUE, UserRank.NAVIGATION_LEGEND, "https://i.ibb.co/jZqTHfcr/Season-2022-Challenger.webp")
+    );
+
+    static final AggregationUpdate RANK_FROM_TRUST_SCORE = AggregationUpdate.update()
+            .set("stats.rank").toValue(byTrustScore(tier -> tier.rank().name()))
+            .set("stats.rankImage").toValue(byTrustScore(Tier::image));
+
+    private UserRanks() {
+    }
+
+    public static void apply(User user) {
+        int trustScore = user.getStats().getTrustScore();
+        for (Tier tier : TIERS) {
+            if (trustScore <= tier.maxTrustScore()) {
+                user.getStats().setRank(tier.rank());
+                user.getStats().setRankImage(tier.image());
+                return;
+            }
+        }
+    }
+
+    private static ConditionalOperators.Switch byTrustScore(Function<Tier, String> value) {
+        List<ConditionalOperators.Switch.CaseOperator> cases = TIERS.subList(0, TIERS.size() - 1).stream()
+                .map(tier -> ConditionalOperators.Switch.CaseOperator
+                        .when(ComparisonOperators.valueOf("stats.trustScore").lessThanEqualToValue(tier.maxTrustScore()))
+                        .then(value.apply(tier)))
+                .toList();
+        return ConditionalOperators.switchCases(cases).defaultTo(value.apply(TIERS.get(TIERS.size() - 1)));
+    }
+
+    private record Tier(int maxTrustScore, UserRank rank, String image) {
+    }
+
+}
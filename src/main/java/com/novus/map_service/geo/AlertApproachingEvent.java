@@ -0,0 +1,6 @@
+package com.novus.map_service.geo;
+
+import com.novus.shared_models.common.Alert.AlertType;
+
+public record AlertApproachingEvent(String userId, String alertId, AlertType alertType, double distanceInMeters) {
+}
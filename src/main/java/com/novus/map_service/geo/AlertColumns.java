@@ -0,0 +1,21 @@
+package com.novus.map_service.geo;
+
+import java.util.Arrays;
+
+public record AlertColumns(String[] alertIds, double[] latitudes, double[] longitudes, long[] expiresAt,
+                           byte[] types, int[] confirmations, int[] rejections) {
+
+    public int size() {
+        return alertIds.length;
+    }
+
+    public AlertColumns truncate(int size) {
+        if (size == size()) {
+            return this;
+        }
+        return new AlertColumns(Arrays.copyOf(alertIds, size), Arrays.copyOf(latitudes, size),
+                Arrays.copyOf(longitudes, size), Arrays.copyOf(expiresAt, size), Arrays.copyOf(types, size),
+                Arrays.copyOf(confirmations, size), Arrays.copyOf(rejections, size));
+    }
+
+}
@@ -0,0 +1,363 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.changelog.AlertStateChange;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertVotes;
+import com.novus.shared_models.common.Alert.Alert;
+import com.novus.shared_models.common.Alert.AlertType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class AlertIndex {
+
+    private static final AlertType[] ALERT_TYPES = AlertType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final DateConfiguration dateConfiguration;
+    private final StateChangelog stateChangelog;
+    private final double cellSizeDegrees;
+
+    private final Map<String, Integer> slotByAlertId = new HashMap<>();
+    private final Map<Long, IntBag> cells = new HashMap<>();
+
+    private String[] alertIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] expiresAt;
+    private long[] cellKeys;
+    private byte[] types;
+    private int[] confirmations;
+    private int[] rejections;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWaterMark;
+
+    public AlertIndex(DateConfiguration dateConfiguration, StateChangelog stateChangelog, EnvConfiguration envConfiguration) {
+        this.dateConfiguration = dateConfiguration;
+        this.stateChangelog = stateChangelog;
+        this.cellSizeDegrees = envConfiguration.getPositionCellSizeDegrees();
+        int capacity = 1024;
+        this.alertIds = new String[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.expiresAt = new long[capacity];
+        this.cellKeys = new long[capacity];
+        this.types = new byte[capacity];
+        this.confirmations = new int[capacity];
+        this.rejections = new int[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    public void upsert(Alert alert) {
+        upsert(alert, null);
+    }
+
+    public void upsert(Alert alert, AlertVotes votes) {
+        AlertStateChange change;
+        lock.writeLock().lock();
+        try {
+            int slot = put(alert.getId(), alert.getLocation().getLatitude(), alert.getLocation().getLongitude(),
+                    alert.getExpiresAt().getTime(), (byte) alert.getType().ordinal());
+            if (votes != null) {
+                confirmations[slot] = votes.confirmations();
+                rejections[slot] = votes.rejections();
+            }
+            change = stateChange(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        stateChangelog.alertChanged(change);
+    }
+
+    public void recordVote(String alertId, boolean confirmed) {
+        AlertStateChange change;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByAlertId.get(alertId);
+            if (slot == null) {
+                return;
+            }
+            if (confirmed) {
+                confirmations[slot]++;
+            } else {
+                rejections[slot]++;
+            }
+            change = stateChange(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        stateChangelog.alertChanged(change);
+    }
+
+    public AlertColumns export() {
+        long now = dateConfiguration.newDate().getTime();
+
+        lock.readLock().lock();
+        try {
+            int size = slotByAlertId.size();
+            AlertColumns columns = new AlertColumns(new String[size], new double[size], new double[size],
+                    new long[size], new byte[size], new int[size], new int[size]);
+            int row = 0;
+            for (int slot = 0; slot < highWaterMark; slot++) {
+                if (alertIds[slot] == null || expiresAt[slot] <= now) {
+                    continue;
+                }
+                columns.alertIds()[row] = alertIds[slot];
+                columns.latitudes()[row] = latitudes[slot];
+                columns.longitudes()[row] = longitudes[slot];
+                columns.expiresAt()[row] = expiresAt[slot];
+                columns.types()[row] = types[slot];
+                columns.confirmations()[row] = confirmations[slot];
+                columns.rejections()[row] = rejections[slot];
+                row++;
+            }
+            return columns.truncate(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int restore(AlertColumns columns) {
+        long now = dateConfiguration.newDate().getTime();
+        int restored = 0;
+
+        lock.writeLock().lock();
+        try {
+            for (int row = 0; row < columns.size(); row++) {
+                if (columns.expiresAt()[row] <= now || columns.types()[row] >= ALERT_TYPES.length) {
+                    continue;
+                }
+                int slot = put(columns.alertIds()[row], columns.latitudes()[row], columns.longitudes()[row],
+                        columns.expiresAt()[row], columns.types()[row]);
+                confirmations[slot] = columns.confirmations()[row];
+                rejections[slot] = columns.rejections()[row];
+                restored++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return restored;
+    }
+
+    public void remove(String alertId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByAlertId.get(alertId);
+            if (slot != null) {
+                releaseSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int retainNear(RegionOwnership regionOwnership) {
+        int dropped = 0;
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < highWaterMark; slot++) {
+                if (alertIds[slot] != null && !regionOwnership.ownsNear(latitudes[slot], longitudes[slot])) {
+                    releaseSlot(slot);
+                    dropped++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return dropped;
+    }
+
+    public List<NearbyAlert> findWithinRadius(double latitude, double longitude, double radiusInMeters) {
+        long now = dateConfiguration.newDate().getTime();
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(radiusInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(radiusInMeters, latitude);
+
+        int minRow = GeoMath.cellRow(latitude - latitudeDelta, cellSizeDegrees);
+        int maxRow = GeoMath.cellRow(latitude + latitudeDelta, cellSizeDegrees);
+        int minColumn = GeoMath.cellColumn(longitude - longitudeDelta, cellSizeDegrees);
+        int maxColumn = GeoMath.cellColumn(longitude + longitudeDelta, cellSizeDegrees);
+
+        List<NearbyAlert> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    IntBag bag = cells.get(GeoMath.cellKey(row, column));
+                    if (bag == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bag.size(); i++) {
+                        int slot = bag.get(i);
+                        if (expiresAt[slot] <= now) {
+                            continue;
+                        }
+                        double distance = GeoMath.distanceInMeters(latitude, longitude, latitudes[slot], longitudes[slot]);
+                        if (distance <= radiusInMeters) {
+                            result.add(new NearbyAlert(alertIds[slot], ALERT_TYPES[types[slot]],
+                                    latitudes[slot], longitudes[slot], distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    public List<NearbyAlert> findAlongSegment(double startLatitude, double startLongitude,
+                                              double endLatitude, double endLongitude, double corridorInMeters) {
+        long now = dateConfiguration.newDate().getTime();
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(corridorInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(corridorInMeters,
+                Math.max(Math.abs(startLatitude), Math.abs(endLatitude)));
+
+        int minRow = GeoMath.cellRow(Math.min(startLatitude, endLatitude) - latitudeDelta, cellSizeDegrees);
+        int maxRow = GeoMath.cellRow(Math.max(startLatitude, endLatitude) + latitudeDelta, cellSizeDegrees);
+        int minColumn = GeoMath.cellColumn(Math.min(startLongitude, endLongitude) - longitudeDelta, cellSizeDegrees);
+        int maxColumn = GeoMath.cellColumn(Math.max(startLongitude, endLongitude) + longitudeDelta, cellSizeDegrees);
+
+        List<NearbyAlert> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    IntBag bag = cells.get(GeoMath.cellKey(row, column));
+                    if (bag == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bag.size(); i++) {
+                        int slot = bag.get(i);
+                        if (expiresAt[slot] <= now) {
+                            continue;
+                        }
+                        double distance = GeoMath.distanceToSegmentInMeters(latitudes[slot], longitudes[slot],
+                                startLatitude, startLongitude, endLatitude, endLongitude);
+                        if (distance <= corridorInMeters) {
+                            result.add(new NearbyAlert(alertIds[slot], ALERT_TYPES[types[slot]],
+                                    latitudes[slot], longitudes[slot], distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    public List<String> evictExpired() {
+        long now = dateConfiguration.newDate().getTime();
+        List<AlertStateChange> evicted = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < highWaterMark; slot++) {
+                if (alertIds[slot] != null && expiresAt[slot] <= now) {
+                    evicted.add(stateChange(slot));
+                    releaseSlot(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        evicted.forEach(change -> stateChangelog.alertRemoved(change.alertId(), change.latitude(), change.longitude()));
+        return evicted.stream().map(AlertStateChange::alertId).toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByAlertId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private AlertStateChange stateChange(int slot) {
+        return new AlertStateChange(alertIds[slot], latitudes[slot], longitudes[slot], expiresAt[slot], types[slot],
+                confirmations[slot], rejections[slot]);
+    }
+
+    private int put(String alertId, double latitude, double longitude, long expiresAtMillis, byte type) {
+        long cellKey = GeoMath.cellKey(latitude, longitude, cellSizeDegrees);
+
+        Integer existingSlot = slotByAlertId.get(alertId);
+        int slot;
+        if (existingSlot == null) {
+            slot = allocateSlot();
+            alertIds[slot] = alertId;
+            confirmations[slot] = 0;
+            rejections[slot] = 0;
+            slotByAlertId.put(alertId, slot);
+            cells.computeIfAbsent(cellKey, key -> new IntBag()).add(slot);
+        } else {
+            slot = existingSlot;
+            if (cellKeys[slot] != cellKey) {
+                removeFromCell(cellKeys[slot], slot);
+                cells.computeIfAbsent(cellKey, key -> new IntBag()).add(slot);
+            }
+        }
+
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        expiresAt[slot] = expiresAtMillis;
+        cellKeys[slot] = cellKey;
+        types[slot] = type;
+        return slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWaterMark == alertIds.length) {
+            grow();
+        }
+        return highWaterMark++;
+    }
+
+    private void releaseSlot(int slot) {
+        removeFromCell(cellKeys[slot], slot);
+        slotByAlertId.remove(alertIds[slot]);
+        alertIds[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void removeFromCell(long cellKey, int slot) {
+        IntBag bag = cells.get(cellKey);
+        if (bag != null && bag.remove(slot) && bag.isEmpty()) {
+            cells.remove(cellKey);
+        }
+    }
+
+    private void grow() {
+        int capacity = alertIds.length * 2;
+        alertIds = Arrays.copyOf(alertIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        expiresAt = Arrays.copyOf(expiresAt, capacity);
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        types = Arrays.copyOf(types, capacity);
+        confirmations = Arrays.copyOf(confirmations, capacity);
+        rejections = Arrays.copyOf(rejections, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalLong;
+import java.util.zip.CRC32C;
+
+@Slf4j
+@Component
+public class AlertIndexSnapshot {
+
+    private static final int MAGIC = 0x4D534149;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FIXED_ROW_BYTES = Double.BYTES * 2 + Long.BYTES + Integer.BYTES * 3 + Byte.BYTES;
+
+    private final AlertIndex alertIndex;
+    private final DateConfiguration dateConfiguration;
+    private final Path file;
+
+    public AlertIndexSnapshot(AlertIndex alertIndex, DateConfiguration dateConfiguration, EnvConfiguration envConfiguration) {
+        this.alertIndex = alertIndex;
+        this.dateConfiguration = dateConfiguration;
+        this.file = envConfiguration.getAlertSnapshotFile() != null ? Path.of(envConfiguration.getAlertSnapshotFile()) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.alert-snapshot-interval-ms:60000}")
+    public synchronized void write() {
+        if (file == null) {
+            return;
+        }
+        try {
+            long takenAt = dateConfiguration.newDate().getTime();
+            AlertColumns columns = alertIndex.export();
+            write(columns, takenAt);
+            log.debug("Wrote alert snapshot with {} alerts to {}", columns.size(), file);
+        } catch (IOException e) {
+            log.warn("Unable to write alert snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        write();
+    }
+
+    public OptionalLong restore() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return OptionalLong.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("not an alert snapshot");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("unsupported snapshot version " + buffer.getInt(4));
+            }
+            long takenAt = buffer.getLong(8);
+            int count = buffer.getInt(16);
+            int idBytes = buffer.getInt(20);
+            long bodyBytes = bodyBytes(count, idBytes);
+            if (buffer.capacity() != HEADER_BYTES + bodyBytes) {
+                throw new IOException("truncated snapshot");
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_BYTES, (int) bodyBytes));
+            if (checksum.getValue() != buffer.getLong(24)) {
+                throw new IOException("checksum mismatch");
+            }
+
+            int restored = alertIndex.restore(read(buffer, count, idBytes));
+            log.info("Restored {} of {} alerts from snapshot {}", restored, count, file);
+            return OptionalLong.of(takenAt);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring alert snapshot {}: {}", file, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private void write(AlertColumns columns, long takenAt) throws IOException {
+        int count = columns.size();
+        byte[][] encodedIds = new byte[count][];
+        int idBytes = 0;
+        for (int row = 0; row < count; row++) {
+            encodedIds[row] = columns.alertIds()[row].getBytes(StandardCharsets.UTF_8);
+            idBytes += encodedIds[row].length;
+        }
+        long bodyBytes = bodyBytes(count, idBytes);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + bodyBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            int position = HEADER_BYTES;
+            column(buffer, position, count, Double.BYTES).asDoubleBuffer().put(columns.latitudes());
+            position += count * Double.BYTES;
+            column(buffer, position, count, Double.BYTES).asDoubleBuffer().put(columns.longitudes());
+            position += count * Double.BYTES;
+            column(buffer, position, count, Long.BYTES).asLongBuffer().put(columns.expiresAt());
+            position += count * Long.BYTES;
+            column(buffer, position, count, Integer.BYTES).asIntBuffer().put(columns.confirmations());
+            position += count * Integer.BYTES;
+            column(buffer, position, count, Integer.BYTES).asIntBuffer().put(columns.rejections());
+            position += count * Integer.BYTES;
+
+            int offset = 0;
+            for (int row = 0; row < count; row++) {
+                buffer.putInt(position, offset);
+                position += Integer.BYTES;
+                offset += encodedIds[row].length;
+            }
+            buffer.putInt(position, offset);
+            position += Integer.BYTES;
+
+            buffer.put(position, columns.types());
+            position += count;
+            for (byte[] encodedId : encodedIds) {
+                buffer.put(position, encodedId);
+                position += encodedId.length;
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_BYTES, (int) bodyBytes));
+
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, takenAt);
+            buffer.putInt(16, count);
+            buffer.putInt(20, idBytes);
+            buffer.putLong(24, checksum.getValue());
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static AlertColumns read(MappedByteBuffer buffer, int count, int idBytes) {
+        AlertColumns columns = new AlertColumns(new String[count], new double[count], new double[count],
+                new long[count], new byte[count], new int[count], new int[count]);
+
+        int position = HEADER_BYTES;
+        column(buffer, position, count, Double.BYTES).asDoubleBuffer().get(columns.latitudes());
+        position += count * Double.BYTES;
+        column(buffer, position, count, Double.BYTES).asDoubleBuffer().get(columns.longitudes());
+        position += count * Double.BYTES;
+        column(buffer, position, count, Long.BYTES).asLongBuffer().get(columns.expiresAt());
+        position += count * Long.BYTES;
+        column(buffer, position, count, Integer.BYTES).asIntBuffer().get(columns.confirmations());
+        position += count * Integer.BYTES;
+        column(buffer, position, count, Integer.BYTES).asIntBuffer().get(columns.rejections());
+        position += count * Integer.BYTES;
+
+        int offsetsPosition = position;
+        position += (count + 1) * Integer.BYTES;
+        buffer.get(position, columns.types());
+        position += count;
+
+        byte[] ids = new byte[idBytes];
+        buffer.get(position, ids);
+        for (int row = 0; row < count; row++) {
+            int start = buffer.getInt(offsetsPosition + row * Integer.BYTES);
+            int end = buffer.getInt(offsetsPosition + (row + 1) * Integer.BYTES);
+            columns.alertIds()[row] = new String(ids, start, end - start, StandardCharsets.UTF_8);
+        }
+        return columns;
+    }
+
+    private static ByteBuffer column(ByteBuffer buffer, int position, int count, int width) {
+        return buffer.slice(position, count * width).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long bodyBytes(int count, int idBytes) {
+        return (long) count * FIXED_ROW_BYTES + Integer.BYTES + idBytes;
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.novus.map_service.geo;
+
+public record FavoriteLocationGeofenceEvent(String userId, String locationId, GeofenceTransition transition) {
+}
@@ -0,0 +1,250 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.FavoriteLocationCache;
+import com.novus.shared_models.common.Location.Location;
+import com.novus.shared_models.common.User.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class FavoriteLocationIndex {
+
+    private final FavoriteLocationCache favoriteLocationCache;
+    private final UserPositionStore userPositionStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double geofenceRadiusInMeters;
+    private final double cellSizeDegrees;
+
+    private final Map<String, UserFavorites> favoritesByUserId = new ConcurrentHashMap<>();
+
+    public FavoriteLocationIndex(FavoriteLocationCache favoriteLocationCache, UserPositionStore userPositionStore,
+                                 ApplicationEventPublisher eventPublisher, EnvConfiguration envConfiguration) {
+        this.favoriteLocationCache = favoriteLocationCache;
+        this.userPositionStore = userPositionStore;
+        this.eventPublisher = eventPublisher;
+        this.geofenceRadiusInMeters = envConfiguration.getFavoriteGeofenceRadiusInMeters();
+        this.cellSizeDegrees = GeoMath.metersToLatitudeDegrees(2 * geofenceRadiusInMeters);
+    }
+
+    public void onUserMoved(User user, double latitude, double longitude) {
+        List<String> favoriteLocationIds = user.getFavoriteLocationIds() != null ? user.getFavoriteLocationIds() : List.of();
+        UserFavorites favorites = favoritesByUserId.get(user.getId());
+        if (favorites == null || !favorites.favoriteLocationIds.equals(favoriteLocationIds)) {
+            UserFavorites loaded = load(user, favoriteLocationIds);
+            favorites = favoritesByUserId.merge(user.getId(), loaded, (current, fresh) ->
+                    current.favoriteLocationIds.equals(fresh.favoriteLocationIds) ? current : fresh.withInsideOf(current));
+        }
+        if (favorites.size() == 0) {
+            return;
+        }
+
+        List<FavoriteLocationGeofenceEvent> events = new ArrayList<>(2);
+        synchronized (favorites) {
+            BitSet inside = new BitSet(favorites.size());
+
+            long cellKey = GeoMath.cellKey(latitude, longitude, cellSizeDegrees);
+            for (int i = favorites.firstEntry(cellKey); i >= 0 && i < favorites.cellKeys.length
+                    && favorites.cellKeys[i] == cellKey; i++) {
+                int fence = favorites.cellFences[i];
+                if (GeoMath.distanceInMeters(latitude, longitude, favorites.latitudes[fence], favorites.longitudes[fence])
+                        <= geofenceRadiusInMeters) {
+                    inside.set(fence);
+                }
+            }
+
+            for (int fence = inside.nextSetBit(0); fence >= 0; fence = inside.nextSetBit(fence + 1)) {
+                if (!favorites.inside.get(fence)) {
+                    events.add(new FavoriteLocationGeofenceEvent(user.getId(), favorites.locationIds[fence], GeofenceTransition.ENTER));
+                }
+            }
+            for (int fence = favorites.inside.nextSetBit(0); fence >= 0; fence = favorites.inside.nextSetBit(fence + 1)) {
+                if (!inside.get(fence)) {
+                    events.add(new FavoriteLocationGeofenceEvent(user.getId(), favorites.locationIds[fence], GeofenceTransition.EXIT));
+                }
+            }
+
+            favorites.inside = inside;
+        }
+
+        for (FavoriteLocationGeofenceEvent event : events) {
+            log.info("User {} {} favorite location {}", event.userId(),
+                    event.transition() == GeofenceTransition.ENTER ? "entered" : "left", event.locationId());
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    public void onLocationSaved(String userId, Location location) {
+        favoritesByUserId.computeIfPresent(userId, (id, favorites) -> {
+            List<String> favoriteLocationIds = new ArrayList<>(favorites.favoriteLocationIds);
+            if (!favoriteLocationIds.contains(location.getId())) {
+                favoriteLocationIds.add(location.getId());
+            }
+            UserFavorites remaining = favorites.without(location.getId(), List.copyOf(favoriteLocationIds));
+            if (location.getCoordinates() == null) {
+                return remaining;
+            }
+            int size = remaining.size();
+            String[] locationIds = Arrays.copyOf(remaining.locationIds, size + 1);
+            double[] latitudes = Arrays.copyOf(remaining.latitudes, size + 1);
+            double[] longitudes = Arrays.copyOf(remaining.longitudes, size + 1);
+            locationIds[size] = location.getId();
+            latitudes[size] = location.getCoordinates().getLatitude();
+            longitudes[size] = location.getCoordinates().getLongitude();
+            return build(remaining.favoriteLocationIds, locationIds, latitudes, longitudes).withInsideOf(favorites);
+        });
+    }
+
+    public void onLocationDeleted(String userId, String locationId) {
+        favoritesByUserId.computeIfPresent(userId, (id, favorites) -> favorites.without(locationId,
+                favorites.favoriteLocationIds.stream().filter(existing -> !existing.equals(locationId)).toList()));
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.position-eviction-interval-ms:30000}")
+    public void evictInactiveUsers() {
+        favoritesByUserId.keySet().removeIf(userId -> userPositionStore.findPosition(userId).isEmpty());
+    }
+
+    private UserFavorites load(User user, List<String> favoriteLocationIds) {
+        List<Location> locations = favoriteLocationCache.getFavorites(user).stream()
+                .filter(location -> location.getCoordinates() != null)
+                .toList();
+
+        int size = locations.size();
+        String[] locationIds = new String[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            Location location = locations.get(i);
+            locationIds[i] = location.getId();
+            latitudes[i] = location.getCoordinates().getLatitude();
+            longitudes[i] = location.getCoordinates().getLongitude();
+        }
+        return build(List.copyOf(favoriteLocationIds), locationIds, latitudes, longitudes);
+    }
+
+    private UserFavorites build(List<String> favoriteLocationIds, String[] locationIds, double[] latitudes, double[] longitudes) {
+        int entryCount = 0;
+        long[] cellKeys = new long[locationIds.length * 4];
+        int[] cellFences = new int[locationIds.length * 4];
+
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(geofenceRadiusInMeters);
+        for (int fence = 0; fence < locationIds.length; fence++) {
+            double longitudeDelta = GeoMath.metersToLongitudeDegrees(geofenceRadiusInMeters, latitudes[fence]);
+            int minRow = GeoMath.cellRow(latitudes[fence] - latitudeDelta, cellSizeDegrees);
+            int maxRow = GeoMath.cellRow(latitudes[fence] + latitudeDelta, cellSizeDegrees);
+            int minColumn = GeoMath.cellColumn(longitudes[fence] - longitudeDelta, cellSizeDegrees);
+            int maxColumn = GeoMath.cellColumn(longitudes[fence] + longitudeDelta, cellSizeDegrees);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    if (entryCount == cellKeys.length) {
+                        cellKeys = Arrays.copyOf(cellKeys, entryCount * 2 + 4);
+                        cellFences = Arrays.copyOf(cellFences, entryCount * 2 + 4);
+                    }
+                    cellKeys[entryCount] = GeoMath.cellKey(row, column);
+                    cellFences[entryCount] = fence;
+                    entryCount++;
+                }
+            }
+        }
+
+        sortByCell(cellKeys, cellFences, entryCount);
+        return new UserFavorites(favoriteLocationIds, locationIds, latitudes, longitudes,
+                Arrays.copyOf(cellKeys, entryCount), Arrays.copyOf(cellFences, entryCount));
+    }
+
+    private static void sortByCell(long[] cellKeys, int[] cellFences, int length) {
+        for (int i = 1; i < length; i++) {
+            long key = cellKeys[i];
+            int fence = cellFences[i];
+            int j = i - 1;
+            while (j >= 0 && cellKeys[j] > key) {
+                cellKeys[j + 1] = cellKeys[j];
+                cellFences[j + 1] = cellFences[j];
+                j--;
+            }
+            cellKeys[j + 1] = key;
+            cellFences[j + 1] = fence;
+        }
+    }
+
+    private final class UserFavorites {
+        private final List<String> favoriteLocationIds;
+        private final String[] locationIds;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final long[] cellKeys;
+        private final int[] cellFences;
+        private BitSet inside = new BitSet();
+
+        private UserFavorites(List<String> favoriteLocationIds, String[] locationIds, double[] latitudes,
+                              double[] longitudes, long[] cellKeys, int[] cellFences) {
+            this.favoriteLocationIds = favoriteLocationIds;
+            this.locationIds = locationIds;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.cellKeys = cellKeys;
+            this.cellFences = cellFences;
+        }
+
+        private int size() {
+            return locationIds.length;
+        }
+
+        private int firstEntry(long cellKey) {
+            int index = Arrays.binarySearch(cellKeys, cellKey);
+            if (index < 0) {
+                return -1;
+            }
+            while (index > 0 && cellKeys[index - 1] == cellKey) {
+                index--;
+            }
+            return index;
+        }
+
+        private UserFavorites without(String locationId, List<String> remainingFavoriteLocationIds) {
+            int index = Arrays.asList(locationIds).indexOf(locationId);
+            if (index < 0) {
+                return new UserFavorites(remainingFavoriteLocationIds, locationIds, latitudes, longitudes, cellKeys, cellFences)
+                        .withInsideOf(this);
+            }
+            int size = size();
+            String[] remainingIds = new String[size - 1];
+            double[] remainingLatitudes = new double[size - 1];
+            double[] remainingLongitudes = new double[size - 1];
+            for (int from = 0, to = 0; from < size; from++) {
+                if (from != index) {
+                    remainingIds[to] = locationIds[from];
+                    remainingLatitudes[to] = latitudes[from];
+                    remainingLongitudes[to] = longitudes[from];
+                    to++;
+                }
+            }
+            return build(remainingFavoriteLocationIds, remainingIds, remainingLatitudes, remainingLongitudes).withInsideOf(this);
+        }
+
+        private UserFavorites withInsideOf(UserFavorites previous) {
+            List<String> ids = Arrays.asList(locationIds);
+            synchronized (previous) {
+                for (int fence = previous.inside.nextSetBit(0); fence >= 0; fence = previous.inside.nextSetBit(fence + 1)) {
+                    int index = ids.indexOf(previous.locationIds[fence]);
+                    if (index >= 0) {
+                        inside.set(index);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.novus.map_service.geo;
+
+import com.novus.shared_models.common.Location.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FavoriteLocationKdTree {
+
+    private final Location[] locations;
+    private final double[][] points;
+
+    private FavoriteLocationKdTree(Location[] locations, double[][] points) {
+        this.locations = locations;
+        this.points = points;
+    }
+
+    public static FavoriteLocationKdTree build(List<Location> favorites) {
+        List<Location> located = favorites.stream()
+                .filter(location -> location.getCoordinates() != null)
+                .toList();
+
+        Location[] locations = located.toArray(new Location[0]);
+        double[][] points = new double[locations.length][];
+        for (int i = 0; i < locations.length; i++) {
+            points[i] = toUnitVector(locations[i].getCoordinates().getLatitude(), locations[i].getCoordinates().getLongitude());
+        }
+
+        arrange(locations, points, 0, locations.length, 0);
+        return new FavoriteLocationKdTree(locations, points);
+    }
+
+    public List<NearestFavoriteLocation> findNearest(double latitude, double longitude, int k) {
+        int count = Math.min(k, locations.length);
+        if (count <= 0) {
+            return List.of();
+        }
+
+        double[] target = toUnitVector(latitude, longitude);
+        int[] bestIndexes = new int[count];
+        double[] bestDistances = new double[count];
+        int[] found = {0};
+
+        search(target, 0, locations.length, 0, bestIndexes, bestDistances, found);
+
+        List<NearestFavoriteLocation> result = new ArrayList<>(found[0]);
+        for (int i = 0; i < found[0]; i++) {
+            Location location = locations[bestIndexes[i]];
+            double distance = GeoMath.distanceInMeters(latitude, longitude,
+                    location.getCoordinates().getLatitude(), location.getCoordinates().getLongitude());
+            result.add(new NearestFavoriteLocation(location, distance));
+        }
+        return result;
+    }
+
+    public int size() {
+        return locations.length;
+    }
+
+    private void search(double[] target, int from, int to, int axis, int[] bestIndexes, double[] bestDistances, int[] found) {
+        if (from >= to) {
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+        offer(median, squaredDistance(target, points[median]), bestIndexes, bestDistances, found);
+
+        double delta = target[axis] - points[median][axis];
+        int nextAxis = (axis + 1) % 3;
+        if (delta < 0) {
+            search(target, from, median, nextAxis, bestIndexes, bestDistances, found);
+            if (found[0] < bestIndexes.length || delta * delta < bestDistances[found[0] - 1]) {
+                search(target, median + 1, to, nextAxis, bestIndexes, bestDistances, found);
+            }
+        } else {
+            search(target, median + 1, to, nextAxis, bestIndexes, bestDistances, found);
+            if (found[0] < bestIndexes.length || delta * delta < bestDistances[found[0] - 1]) {
+                search(target, from, median, nextAxis, bestIndexes, bestDistances, found);
+            }
+        }
+    }
+
+    private static void offer(int index, double distance, int[] bestIndexes, double[] bestDistances, int[] found) {
+        int capacity = bestIndexes.length;
+        if (found[0] == capacity && distance >= bestDistances[capacity - 1]) {
+            return;
+        }
+
+        int position = found[0] < capacity ? found[0]++ : capacity - 1;
+        while (position > 0 && bestDistances[position - 1] > distance) {
+            bestDistances[position] = bestDistances[position - 1];
+            bestIndexes[position] = bestIndexes[position - 1];
+            position--;
+        }
+        bestDistances[position] = distance;
+        bestIndexes[position] = index;
+    }
+
+    private static void arrange(Location[] locations, double[][] points, int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+        select(locations, points, from, to - 1, median, axis);
+
+        int nextAxis = (axis + 1) % 3;
+        arrange(locations, points, from, median, nextAxis);
+        arrange(locations, points, median + 1, to, nextAxis);
+    }
+
+    private static void select(Location[] locations, double[][] points, int left, int right, int target, int axis) {
+        while (left < right) {
+            double pivot = points[(left + right) >>> 1][axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[i][axis] < pivot) {
+                    i++;
+                }
+                while (points[j][axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(locations, points, i++, j--);
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(Location[] locations, double[][] points, int i, int j) {
+        Location location = locations[i];
+        locations[i] = locations[j];
+        locations[j] = location;
+        double[] point = points[i];
+        points[i] = points[j];
+        points[j] = point;
+    }
+
+    private static double squaredDistance(double[] left, double[] right) {
+        double dx = left[0] - right[0];
+        double dy = left[1] - right[1];
+        double dz = left[2] - right[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.novus.map_service.geo;
+
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180.0;
+
+    private static final double MIN_LONGITUDE_SCALE = 0.01;
+
+    private GeoMath() {
+    }
+
+    public static double distanceInMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static double distanceToSegmentInMeters(double latitude, double longitude,
+                                                   double startLatitude, double startLongitude,
+                                                   double endLatitude, double endLongitude) {
+        double scale = longitudeScale((startLatitude + endLatitude) / 2);
+        double segmentX = (endLongitude - startLongitude) * scale;
+        double segmentY = endLatitude - startLatitude;
+        double pointX = (longitude - startLongitude) * scale;
+        double pointY = latitude - startLatitude;
+
+        double lengthSquared = segmentX * segmentX + segmentY * segmentY;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (pointX * segmentX + pointY * segmentY) / lengthSquared));
+        return distanceInMeters(latitude, longitude,
+                startLatitude + t * (endLatitude - startLatitude),
+                startLongitude + t * (endLongitude - startLongitude));
+    }
+
+    public static double metersToLatitudeDegrees(double meters) {
+        return meters / METERS_PER_DEGREE;
+    }
+
+    public static double metersToLongitudeDegrees(double meters, double atLatitude) {
+        return meters / (METERS_PER_DEGREE * longitudeScale(atLatitude));
+    }
+
+    public static double longitudeScale(double atLatitude) {
+        return Math.max(Math.cos(Math.toRadians(atLatitude)), MIN_LONGITUDE_SCALE);
+    }
+
+    public static int cellRow(double latitude, double cellSizeDegrees) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    public static int cellColumn(double longitude, double cellSizeDegrees) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    public static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    public static long cellKey(double latitude, double longitude, double cellSizeDegrees) {
+        return cellKey(cellRow(latitude, cellSizeDegrees), cellColumn(longitude, cellSizeDegrees));
+    }
+
+    public static int rowOf(long cellKey) {
+        return (int) (cellKey >> 32);
+    }
+
+    public static int columnOf(long cellKey) {
+        return (int) cellKey;
+    }
+
+}
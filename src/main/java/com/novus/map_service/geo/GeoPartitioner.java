@@ -0,0 +1,46 @@
+package com.novus.map_service.geo;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class GeoPartitioner implements Partitioner {
+
+    public static final String REGION_KEY_PREFIX = "geo:";
+
+    static final int MAX_PARTITIONING_PRECISION = 6;
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int partitionCount = cluster.partitionCountForTopic(topic);
+        if (key instanceof String stringKey && isRegionKey(stringKey)) {
+            return partitionOf(stringKey.substring(REGION_KEY_PREFIX.length()), partitionCount);
+        }
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(partitionCount);
+        }
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % partitionCount;
+    }
+
+    public static boolean isRegionKey(String key) {
+        return key.startsWith(REGION_KEY_PREFIX) && Geohash.isValid(key.substring(REGION_KEY_PREFIX.length()));
+    }
+
+    public static int partitionOf(String region, int partitionCount) {
+        String cell = region.length() > MAX_PARTITIONING_PRECISION ? region.substring(0, MAX_PARTITIONING_PRECISION) : region;
+        long cells = 1L << (5 * cell.length());
+        return (int) (Geohash.ordinal(cell) * partitionCount / cells);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
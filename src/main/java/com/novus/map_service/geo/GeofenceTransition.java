@@ -0,0 +1,6 @@
+package com.novus.map_service.geo;
+
+public enum GeofenceTransition {
+    ENTER,
+    EXIT
+}
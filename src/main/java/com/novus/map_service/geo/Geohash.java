@@ -0,0 +1,155 @@
+package com.novus.map_service.geo;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] BASE32_INDEX = new int[128];
+
+    static {
+        java.util.Arrays.fill(BASE32_INDEX, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            BASE32_INDEX[BASE32[i]] = i;
+        }
+    }
+
+    private Geohash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+        char[] hash = new char[precision];
+        boolean longitudeBit = true;
+
+        for (int i = 0; i < precision; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                if (longitudeBit) {
+                    double middle = (minLongitude + maxLongitude) / 2;
+                    if (longitude >= middle) {
+                        index = (index << 1) | 1;
+                        minLongitude = middle;
+                    } else {
+                        index <<= 1;
+                        maxLongitude = middle;
+                    }
+                } else {
+                    double middle = (minLatitude + maxLatitude) / 2;
+                    if (latitude >= middle) {
+                        index = (index << 1) | 1;
+                        minLatitude = middle;
+                    } else {
+                        index <<= 1;
+                        maxLatitude = middle;
+                    }
+                }
+                longitudeBit = !longitudeBit;
+            }
+            hash[i] = BASE32[index];
+        }
+        return new String(hash);
+    }
+
+    public static double[] bounds(String geohash) {
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+        boolean longitudeBit = true;
+
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            int index = c < BASE32_INDEX.length ? BASE32_INDEX[c] : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((index >> bit) & 1) == 1;
+                if (longitudeBit) {
+                    double middle = (minLongitude + maxLongitude) / 2;
+                    if (set) {
+                        minLongitude = middle;
+                    } else {
+                        maxLongitude = middle;
+                    }
+                } else {
+                    double middle = (minLatitude + maxLatitude) / 2;
+                    if (set) {
+                        minLatitude = middle;
+                    } else {
+                        maxLatitude = middle;
+                    }
+                }
+                longitudeBit = !longitudeBit;
+            }
+        }
+        return new double[]{minLatitude, minLongitude, maxLatitude, maxLongitude};
+    }
+
+    public static long ordinal(String geohash) {
+        long ordinal = 0;
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            int index = c < BASE32_INDEX.length ? BASE32_INDEX[c] : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            ordinal = (ordinal << 5) | index;
+        }
+        return ordinal;
+    }
+
+    public static String fromOrdinal(long ordinal, int precision) {
+        char[] hash = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            hash[i] = BASE32[(int) (ordinal & 31)];
+            ordinal >>>= 5;
+        }
+        return new String(hash);
+    }
+
+    public static boolean isValid(String geohash) {
+        if (geohash.isEmpty() || geohash.length() > 12) {
+            return false;
+        }
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            if (c >= BASE32_INDEX.length || BASE32_INDEX[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static double latitudeSpan(int precision) {
+        return 180.0 / (1L << (precision * 5 / 2));
+    }
+
+    public static double longitudeSpan(int precision) {
+        return 360.0 / (1L << ((precision * 5 + 1) / 2));
+    }
+
+    public static Set<String> covering(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                       int precision) {
+        double latitudeStep = latitudeSpan(precision);
+        double longitudeStep = longitudeSpan(precision);
+        double top = Math.min(maxLatitude, 90 - latitudeStep / 2);
+        double right = Math.min(maxLongitude, 180 - longitudeStep / 2);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double latitude = Math.max(minLatitude, -90); ; latitude = Math.min(latitude + latitudeStep, top)) {
+            for (double longitude = Math.max(minLongitude, -180); ; longitude = Math.min(longitude + longitudeStep, right)) {
+                cells.add(encode(latitude, longitude, precision));
+                if (longitude >= right) {
+                    break;
+                }
+            }
+            if (latitude >= top) {
+                break;
+            }
+        }
+        return cells;
+    }
+
+}
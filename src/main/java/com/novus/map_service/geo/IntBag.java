@@ -0,0 +1,43 @@
+package com.novus.map_service.geo;
+
+import java.util.Arrays;
+
+final class IntBag {
+
+    private int[] values;
+    private int size;
+
+    IntBag() {
+        this.values = new int[4];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    boolean remove(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.novus.map_service.geo;
+
+import com.novus.shared_models.common.Alert.AlertType;
+
+public record NearbyAlert(String alertId, AlertType type, double latitude, double longitude, double distanceInMeters) {
+}
@@ -0,0 +1,4 @@
+package com.novus.map_service.geo;
+
+public record NearbyUser(String userId, double latitude, double longitude, double distanceInMeters) {
+}
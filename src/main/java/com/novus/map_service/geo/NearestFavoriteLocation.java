@@ -0,0 +1,6 @@
+package com.novus.map_service.geo;
+
+import com.novus.shared_models.common.Location.Location;
+
+public record NearestFavoriteLocation(Location location, double distanceInMeters) {
+}
@@ -0,0 +1,46 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.FavoriteLocationCache;
+import com.novus.shared_models.common.Location.Location;
+import com.novus.shared_models.common.User.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class NearestFavoriteLocator {
+
+    private final FavoriteLocationCache favoriteLocationCache;
+    private final Map<String, IndexedFavorites> treesByUserId;
+
+    public NearestFavoriteLocator(FavoriteLocationCache favoriteLocationCache, EnvConfiguration envConfiguration) {
+        this.favoriteLocationCache = favoriteLocationCache;
+        int maxUsers = envConfiguration.getFavoriteLocationCacheMaxUsers();
+        this.treesByUserId = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IndexedFavorites> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public List<NearestFavoriteLocation> findNearest(User user, double latitude, double longitude, int k) {
+        List<Location> favorites = favoriteLocationCache.getFavorites(user);
+
+        IndexedFavorites indexed = treesByUserId.get(user.getId());
+        if (indexed == null || indexed.source() != favorites) {
+            indexed = new IndexedFavorites(favorites, FavoriteLocationKdTree.build(favorites));
+            treesByUserId.put(user.getId(), indexed);
+        }
+
+        return indexed.tree().findNearest(latitude, longitude, k);
+    }
+
+    private record IndexedFavorites(List<Location> source, FavoriteLocationKdTree tree) {
+    }
+
+}
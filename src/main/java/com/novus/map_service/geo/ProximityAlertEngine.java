@@ -0,0 +1,267 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertDaoUtils;
+import com.novus.map_service.dao.AlertVotes;
+import com.novus.shared_models.common.Alert.Alert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class ProximityAlertEngine {
+
+    private static final List<NearbyAlert> NO_CANDIDATES = List.of();
+    private static final AlertVotes NO_VOTES = new AlertVotes(0, 0);
+
+    private final AlertIndex alertIndex;
+    private final AlertIndexSnapshot alertIndexSnapshot;
+    private final UserPositionStore userPositionStore;
+    private final AlertDaoUtils alertDaoUtils;
+    private final DateConfiguration dateConfiguration;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RegionOwnership regionOwnership;
+    private final int maxAlertDistanceInMeters;
+    private final double cellDiagonalInMeters;
+    private final long snapshotCatchUpMarginMs;
+
+    private volatile long lastRegionSyncAt;
+
+    private final Map<String, UserWatch> watches = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> notifiedUserIdsByAlertId = new ConcurrentHashMap<>();
+
+    public ProximityAlertEngine(AlertIndex alertIndex, AlertIndexSnapshot alertIndexSnapshot, UserPositionStore userPositionStore,
+                                AlertDaoUtils alertDaoUtils, DateConfiguration dateConfiguration,
+                                ApplicationEventPublisher eventPublisher, RegionOwnership regionOwnership,
+                                EnvConfiguration envConfiguration) {
+        this.alertIndex = alertIndex;
+        this.alertIndexSnapshot = alertIndexSnapshot;
+        this.userPositionStore = userPositionStore;
+        this.alertDaoUtils = alertDaoUtils;
+        this.dateConfiguration = dateConfiguration;
+        this.eventPublisher = eventPublisher;
+        this.regionOwnership = regionOwnership;
+        this.maxAlertDistanceInMeters = envConfiguration.getProximityAlertMaxDistanceInMeters();
+        this.cellDiagonalInMeters = Math.sqrt(2) * userPositionStore.getCellSizeDegrees() * GeoMath.METERS_PER_DEGREE;
+        this.snapshotCatchUpMarginMs = envConfiguration.getAlertSnapshotCatchUpMarginMs();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveAlerts() {
+        lastRegionSyncAt = dateConfiguration.newDate().getTime();
+        OptionalLong snapshotTakenAt = alertIndexSnapshot.restore();
+        if (snapshotTakenAt.isPresent()) {
+            if (regionOwnership.isEnabled()) {
+                alertIndex.retainNear(regionOwnership);
+            }
+            List<Alert> changedAlerts = alertDaoUtils.findAllUpdatedSince(
+                    new Date(snapshotTakenAt.getAsLong() - snapshotCatchUpMarginMs));
+            log.info("Caught up {} alerts changed since the snapshot", upsertOwned(changedAlerts));
+            return;
+        }
+
+        List<Alert> activeAlerts = alertDaoUtils.findAllActive(dateConfiguration.newDate());
+        log.info("Loaded {} active alerts into the proximity index", upsertOwned(activeAlerts));
+    }
+
+    public void onRegionsAssigned() {
+        List<Alert> activeAlerts = alertDaoUtils.findAllActive(dateConfiguration.newDate());
+        int loaded = upsertOwned(activeAlerts);
+        watches.values().forEach(watch -> watch.stale = true);
+        log.info("Loaded {} active alerts for partitions {}", loaded, regionOwnership.ownedPartitions());
+    }
+
+    public void onRegionsRestored() {
+        alertIndex.retainNear(regionOwnership);
+        watches.values().forEach(watch -> watch.stale = true);
+    }
+
+    public void onRegionsRevoked() {
+        int dropped = alertIndex.retainNear(regionOwnership);
+        watches.values().forEach(watch -> watch.stale = true);
+        log.info("Dropped {} alerts outside partitions {}", dropped, regionOwnership.ownedPartitions());
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.geo-partition-sync-interval-ms:10000}")
+    public void syncOwnedRegions() {
+        if (!regionOwnership.isEnabled()) {
+            return;
+        }
+        long syncStartedAt = dateConfiguration.newDate().getTime();
+        List<Alert> changedAlerts = alertDaoUtils.findAllUpdatedSince(new Date(lastRegionSyncAt - snapshotCatchUpMarginMs));
+        lastRegionSyncAt = syncStartedAt;
+        if (upsertOwned(changedAlerts) > 0) {
+            watches.values().forEach(watch -> watch.stale = true);
+        }
+    }
+
+    public void onUserMoved(String userId, double latitude, double longitude, int proximityAlertDistance, boolean cellChanged) {
+        int alertDistance = Math.min(proximityAlertDistance, maxAlertDistanceInMeters);
+        if (alertDistance <= 0) {
+            watches.remove(userId);
+            return;
+        }
+
+        UserWatch watch = watches.computeIfAbsent(userId, id -> new UserWatch());
+        synchronized (watch) {
+            if (cellChanged || watch.stale || watch.alertDistance != alertDistance) {
+                watch.candidates = alertIndex.findWithinRadius(latitude, longitude, alertDistance + cellDiagonalInMeters);
+                watch.alertDistance = alertDistance;
+                watch.stale = false;
+            }
+            evaluate(userId, latitude, longitude, watch);
+        }
+    }
+
+    public List<NearbyAlert> findWithinRadius(double latitude, double longitude, double radiusInMeters) {
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(radiusInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(radiusInMeters, latitude);
+        double minLatitude = latitude - latitudeDelta;
+        double maxLatitude = latitude + latitudeDelta;
+        double minLongitude = longitude - longitudeDelta;
+        double maxLongitude = longitude + longitudeDelta;
+        if (regionOwnership.coversArea(minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+            return alertIndex.findWithinRadius(latitude, longitude, radiusInMeters);
+        }
+
+        List<NearbyAlert> result = new ArrayList<>();
+        for (Alert alert : alertDaoUtils.findActiveWithin(dateConfiguration.newDate(),
+                minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+            double distance = GeoMath.distanceInMeters(latitude, longitude,
+                    alert.getLocation().getLatitude(), alert.getLocation().getLongitude());
+            if (distance <= radiusInMeters) {
+                result.add(nearbyAlert(alert, distance));
+            }
+        }
+        log.debug("Served radius query outside partitions {} from Mongo", regionOwnership.ownedPartitions());
+        return result;
+    }
+
+    public List<NearbyAlert> findAlongSegment(double startLatitude, double startLongitude,
+                                              double endLatitude, double endLongitude, double corridorInMeters) {
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(corridorInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(corridorInMeters,
+                Math.max(Math.abs(startLatitude), Math.abs(endLatitude)));
+        double minLatitude = Math.min(startLatitude, endLatitude) - latitudeDelta;
+        double maxLatitude = Math.max(startLatitude, endLatitude) + latitudeDelta;
+        double minLongitude = Math.min(startLongitude, endLongitude) - longitudeDelta;
+        double maxLongitude = Math.max(startLongitude, endLongitude) + longitudeDelta;
+        if (regionOwnership.coversArea(minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+            return alertIndex.findAlongSegment(startLatitude, startLongitude, endLatitude, endLongitude, corridorInMeters);
+        }
+
+        List<NearbyAlert> result = new ArrayList<>();
+        for (Alert alert : alertDaoUtils.findActiveWithin(dateConfiguration.newDate(),
+                minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+            double distance = GeoMath.distanceToSegmentInMeters(alert.getLocation().getLatitude(),
+                    alert.getLocation().getLongitude(), startLatitude, startLongitude, endLatitude, endLongitude);
+            if (distance <= corridorInMeters) {
+                result.add(nearbyAlert(alert, distance));
+            }
+        }
+        log.debug("Served segment query outside partitions {} from Mongo", regionOwnership.ownedPartitions());
+        return result;
+    }
+
+    public void onAlertChanged(Alert alert) {
+        double latitude = alert.getLocation().getLatitude();
+        double longitude = alert.getLocation().getLongitude();
+        if (!regionOwnership.ownsNear(latitude, longitude)) {
+            alertIndex.remove(alert.getId());
+            return;
+        }
+        alertIndex.upsert(alert);
+
+        List<NearbyUser> nearbyUsers = userPositionStore.findAllWithinRadius(
+                latitude, longitude, maxAlertDistanceInMeters + cellDiagonalInMeters);
+
+        for (NearbyUser nearbyUser : nearbyUsers) {
+            UserWatch watch = watches.get(nearbyUser.userId());
+            if (watch == null) {
+                continue;
+            }
+            synchronized (watch) {
+                watch.candidates = alertIndex.findWithinRadius(
+                        nearbyUser.latitude(), nearbyUser.longitude(), watch.alertDistance + cellDiagonalInMeters);
+                evaluate(nearbyUser.userId(), nearbyUser.latitude(), nearbyUser.longitude(), watch);
+            }
+        }
+    }
+
+    public void onAlertVoted(Alert alert, boolean confirmed) {
+        if (!regionOwnership.ownsNear(alert.getLocation().getLatitude(), alert.getLocation().getLongitude())) {
+            log.debug("Vote on alert {} outside partitions {} is left to the owner's region sync",
+                    alert.getId(), regionOwnership.ownedPartitions());
+            alertIndex.remove(alert.getId());
+            return;
+        }
+        onAlertChanged(alert);
+        alertIndex.recordVote(alert.getId(), confirmed);
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.alert-eviction-interval-ms:60000}")
+    public void evictExpiredState() {
+        watches.keySet().removeIf(userId -> userPositionStore.findPosition(userId).isEmpty());
+
+        List<String> expiredAlertIds = alertIndex.evictExpired();
+        if (expiredAlertIds.isEmpty()) {
+            return;
+        }
+
+        expiredAlertIds.forEach(notifiedUserIdsByAlertId::remove);
+        watches.values().forEach(watch -> watch.stale = true);
+        log.info("Evicted {} expired alerts from the proximity index", expiredAlertIds.size());
+    }
+
+    private static NearbyAlert nearbyAlert(Alert alert, double distance) {
+        return new NearbyAlert(alert.getId(), alert.getType(),
+                alert.getLocation().getLatitude(), alert.getLocation().getLongitude(), distance);
+    }
+
+    private int upsertOwned(List<Alert> alerts) {
+        List<Alert> owned = alerts.stream()
+                .filter(alert -> regionOwnership.ownsNear(alert.getLocation().getLatitude(), alert.getLocation().getLongitude()))
+                .toList();
+        Map<String, AlertVotes> votes = alertDaoUtils.findVotes(owned.stream().map(Alert::getId).toList());
+        for (Alert alert : owned) {
+            alertIndex.upsert(alert, votes.getOrDefault(alert.getId(), NO_VOTES));
+        }
+        return owned.size();
+    }
+
+    private void evaluate(String userId, double latitude, double longitude, UserWatch watch) {
+        for (NearbyAlert candidate : watch.candidates) {
+            double distance = GeoMath.distanceInMeters(latitude, longitude, candidate.latitude(), candidate.longitude());
+            if (distance > watch.alertDistance) {
+                continue;
+            }
+
+            Set<String> notifiedUserIds = notifiedUserIdsByAlertId.computeIfAbsent(
+                    candidate.alertId(), id -> ConcurrentHashMap.newKeySet());
+            if (notifiedUserIds.add(userId)) {
+                log.info("User {} is approaching alert {} ({} m)", userId, candidate.alertId(), Math.round(distance));
+                eventPublisher.publishEvent(new AlertApproachingEvent(userId, candidate.alertId(), candidate.type(), distance));
+            }
+        }
+    }
+
+    private static final class UserWatch {
+        private List<NearbyAlert> candidates = NO_CANDIDATES;
+        private int alertDistance;
+        private volatile boolean stale = true;
+    }
+
+}
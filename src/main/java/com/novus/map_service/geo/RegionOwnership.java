@@ -0,0 +1,133 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RegionOwnership {
+
+    private final boolean enabled;
+    private final int precision;
+    private final double haloInMeters;
+
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    private volatile int partitionCount;
+
+    public RegionOwnership(EnvConfiguration envConfiguration) {
+        this.enabled = envConfiguration.isGeoPartitioningEnabled();
+        this.precision = envConfiguration.getGeoPartitionPrecision();
+        this.haloInMeters = envConfiguration.getGeoPartitionHaloInMeters();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Set<Integer> assign(int topicPartitionCount, Collection<Integer> partitions) {
+        partitionCount = topicPartitionCount;
+        Set<Integer> newlyOwned = new HashSet<>();
+        for (Integer partition : partitions) {
+            if (ownedPartitions.add(partition)) {
+                newlyOwned.add(partition);
+            }
+        }
+        return newlyOwned;
+    }
+
+    public void revoke(Collection<Integer> partitions) {
+        ownedPartitions.removeAll(partitions);
+    }
+
+    public Set<Integer> ownedPartitions() {
+        return Set.copyOf(ownedPartitions);
+    }
+
+    public boolean owns(double latitude, double longitude) {
+        return !enabled || ownedPartitions.contains(partitionOf(latitude, longitude));
+    }
+
+    public boolean ownsNear(double latitude, double longitude) {
+        if (owns(latitude, longitude)) {
+            return true;
+        }
+        if (partitionCount == 0) {
+            return false;
+        }
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(haloInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(haloInMeters, latitude);
+        for (String cell : Geohash.covering(latitude - latitudeDelta, longitude - longitudeDelta,
+                latitude + latitudeDelta, longitude + longitudeDelta, precision)) {
+            if (ownedPartitions.contains(GeoPartitioner.partitionOf(cell, partitionCount))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean coversArea(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        if (!enabled) {
+            return true;
+        }
+        int count = partitionCount;
+        if (count == 0) {
+            return false;
+        }
+        double nearestToEquator = minLatitude <= 0 && maxLatitude >= 0
+                ? 0 : Math.min(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(haloInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(haloInMeters, nearestToEquator);
+        double innerMinLatitude = minLatitude + latitudeDelta;
+        double innerMaxLatitude = maxLatitude - latitudeDelta;
+        if (innerMinLatitude > innerMaxLatitude) {
+            innerMinLatitude = innerMaxLatitude = (minLatitude + maxLatitude) / 2;
+        }
+        double innerMinLongitude = minLongitude + longitudeDelta;
+        double innerMaxLongitude = maxLongitude - longitudeDelta;
+        if (innerMinLongitude > innerMaxLongitude) {
+            innerMinLongitude = innerMaxLongitude = (minLongitude + maxLongitude) / 2;
+        }
+        for (String cell : Geohash.covering(innerMinLatitude, innerMinLongitude, innerMaxLatitude, innerMaxLongitude, precision)) {
+            if (!ownedPartitions.contains(GeoPartitioner.partitionOf(cell, count))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Set<Integer> haloPartitionsOf(Collection<Integer> partitions) {
+        int count = partitionCount;
+        Set<Integer> halo = new HashSet<>();
+        if (!enabled || count == 0) {
+            return halo;
+        }
+        int cellPrecision = Math.min(precision, GeoPartitioner.MAX_PARTITIONING_PRECISION);
+        long cells = 1L << (5 * cellPrecision);
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(haloInMeters);
+        for (Integer partition : partitions) {
+            long firstOrdinal = Math.ceilDiv(partition * cells, count);
+            long lastOrdinal = Math.ceilDiv((partition + 1) * cells, count);
+            for (long ordinal = firstOrdinal; ordinal < lastOrdinal; ordinal++) {
+                double[] bounds = Geohash.bounds(Geohash.fromOrdinal(ordinal, cellPrecision));
+                double widestLatitude = Math.max(Math.abs(bounds[0]), Math.abs(bounds[2]));
+                double longitudeDelta = GeoMath.metersToLongitudeDegrees(haloInMeters, widestLatitude);
+                for (String cell : Geohash.covering(bounds[0] - latitudeDelta, bounds[1] - longitudeDelta,
+                        bounds[2] + latitudeDelta, bounds[3] + longitudeDelta, cellPrecision)) {
+                    halo.add(GeoPartitioner.partitionOf(cell, count));
+                }
+            }
+        }
+        halo.removeAll(partitions);
+        return halo;
+    }
+
+    public int partitionOf(double latitude, double longitude) {
+        int count = partitionCount;
+        return count == 0 ? -1 : GeoPartitioner.partitionOf(Geohash.encode(latitude, longitude, precision), count);
+    }
+
+}
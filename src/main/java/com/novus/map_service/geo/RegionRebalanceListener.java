@@ -0,0 +1,88 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.changelog.ChangelogRestorer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RegionRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    public static final String TOPIC = "map-service";
+
+    private final RegionOwnership regionOwnership;
+    private final ProximityAlertEngine proximityAlertEngine;
+    private final UserPositionStore userPositionStore;
+    private final ChangelogRestorer changelogRestorer;
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!regionOwnership.isEnabled()) {
+            return;
+        }
+        List<Integer> assigned = partitionsOfTopic(partitions);
+        if (assigned.isEmpty()) {
+            return;
+        }
+        int topicPartitionCount = consumer.partitionsFor(TOPIC).size();
+        Set<Integer> previouslyOwned = regionOwnership.ownedPartitions();
+        Set<Integer> newlyOwned = regionOwnership.assign(topicPartitionCount, assigned);
+        if (newlyOwned.isEmpty()) {
+            return;
+        }
+        log.info("Taking ownership of map partitions {}", newlyOwned);
+        if (changelogRestorer.isEnabled() && changelogRestorer.verifyPartitionCount(consumer, topicPartitionCount)) {
+            Set<Integer> restored = new HashSet<>(newlyOwned);
+            restored.addAll(regionOwnership.haloPartitionsOf(newlyOwned));
+            restored.removeAll(previouslyOwned);
+            changelogRestorer.restore(restored);
+            proximityAlertEngine.onRegionsRestored();
+            userPositionStore.retainNear(regionOwnership);
+        } else {
+            proximityAlertEngine.onRegionsAssigned();
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    private void release(Collection<TopicPartition> partitions) {
+        if (!regionOwnership.isEnabled()) {
+            return;
+        }
+        List<Integer> revoked = partitionsOfTopic(partitions);
+        if (revoked.isEmpty()) {
+            return;
+        }
+        log.info("Releasing ownership of map partitions {}", revoked);
+        regionOwnership.revoke(revoked);
+        proximityAlertEngine.onRegionsRevoked();
+        int droppedPositions = userPositionStore.retainNear(regionOwnership);
+        log.info("Dropped {} user positions outside partitions {}", droppedPositions, regionOwnership.ownedPartitions());
+    }
+
+    private static List<Integer> partitionsOfTopic(Collection<TopicPartition> partitions) {
+        return partitions.stream()
+                .filter(partition -> TOPIC.equals(partition.topic()))
+                .map(TopicPartition::partition)
+                .toList();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class SpatialRouter {
+
+    private final int precision;
+
+    public SpatialRouter(EnvConfiguration envConfiguration) {
+        this.precision = envConfiguration.getGeoPartitionPrecision();
+    }
+
+    public String routingKey(String operationKey, Map<String, String> request) {
+        if (request == null) {
+            return operationKey;
+        }
+        if (request.get("latitude") != null && request.get("longitude") != null) {
+            return regionKey(Double.parseDouble(request.get("latitude")), Double.parseDouble(request.get("longitude")));
+        }
+        if (request.get("userId") != null) {
+            return request.get("userId");
+        }
+        return operationKey;
+    }
+
+    public String regionKey(double latitude, double longitude) {
+        return GeoPartitioner.REGION_KEY_PREFIX + Geohash.encode(latitude, longitude, precision);
+    }
+
+}
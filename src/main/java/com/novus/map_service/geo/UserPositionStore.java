@@ -0,0 +1,381 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.changelog.PositionStateChange;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.EnvConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class UserPositionStore {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StateChangelog stateChangelog;
+    private final double cellSizeDegrees;
+    private final long ttlMillis;
+
+    private final Map<String, Integer> slotByUserId = new HashMap<>();
+    private final Map<Long, IntBag> cells = new HashMap<>();
+
+    private String[] userIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] updatedAt;
+    private long[] cellKeys;
+    private boolean[] visible;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWaterMark;
+
+    public UserPositionStore(StateChangelog stateChangelog, EnvConfiguration envConfiguration) {
+        this.stateChangelog = stateChangelog;
+        this.cellSizeDegrees = envConfiguration.getPositionCellSizeDegrees();
+        this.ttlMillis = envConfiguration.getPositionTtlSeconds() * 1000L;
+        int capacity = Math.max(16, envConfiguration.getPositionStoreInitialCapacity());
+        this.userIds = new String[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.updatedAt = new long[capacity];
+        this.cellKeys = new long[capacity];
+        this.visible = new boolean[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    public boolean update(String userId, double latitude, double longitude, boolean showUsers) {
+        long now = System.currentTimeMillis();
+        double previousLatitude = Double.NaN;
+        double previousLongitude = Double.NaN;
+        boolean cellChanged;
+
+        lock.writeLock().lock();
+        try {
+            Integer existingSlot = slotByUserId.get(userId);
+            if (existingSlot != null) {
+                previousLatitude = latitudes[existingSlot];
+                previousLongitude = longitudes[existingSlot];
+            }
+            cellChanged = put(userId, latitude, longitude, now, showUsers);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        stateChangelog.positionChanged(new PositionStateChange(userId, latitude, longitude, now, showUsers),
+                previousLatitude, previousLongitude);
+        return cellChanged;
+    }
+
+    public boolean restore(String userId, double latitude, double longitude, long updatedAtMillis, boolean showUsers) {
+        if (System.currentTimeMillis() - updatedAtMillis > ttlMillis) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existingSlot = slotByUserId.get(userId);
+            if (existingSlot != null && updatedAt[existingSlot] >= updatedAtMillis) {
+                return false;
+            }
+            put(userId, latitude, longitude, updatedAtMillis, showUsers);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    public boolean updateVisibility(String userId, boolean showUsers) {
+        PositionStateChange change;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot == null) {
+                return false;
+            }
+            if (visible[slot] == showUsers) {
+                return true;
+            }
+            visible[slot] = showUsers;
+            change = new PositionStateChange(userId, latitudes[slot], longitudes[slot], updatedAt[slot], showUsers);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        stateChangelog.positionChanged(change, change.latitude(), change.longitude());
+        return true;
+    }
+
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot != null) {
+                releaseSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int retainNear(RegionOwnership regionOwnership) {
+        int dropped = 0;
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < highWaterMark; slot++) {
+                if (userIds[slot] != null && !regionOwnership.ownsNear(latitudes[slot], longitudes[slot])) {
+                    releaseSlot(slot);
+                    dropped++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return dropped;
+    }
+
+    public List<NearbyUser> findWithinRadius(double latitude, double longitude, double radiusInMeters,
+                                             String excludedUserId, int limit) {
+        List<NearbyUser> result = collectWithinRadius(latitude, longitude, radiusInMeters, excludedUserId, false);
+        result.sort(Comparator.comparingDouble(NearbyUser::distanceInMeters));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public List<NearbyUser> findAllWithinRadius(double latitude, double longitude, double radiusInMeters) {
+        return collectWithinRadius(latitude, longitude, radiusInMeters, null, true);
+    }
+
+    public List<NearbyUser> findNearest(double latitude, double longitude, int k, double maxRadiusInMeters,
+                                        String excludedUserId) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        long now = System.currentTimeMillis();
+        int centerRow = GeoMath.cellRow(latitude, cellSizeDegrees);
+        int centerColumn = GeoMath.cellColumn(longitude, cellSizeDegrees);
+        double ringWidthInMeters = cellSizeDegrees * GeoMath.METERS_PER_DEGREE * GeoMath.longitudeScale(latitude);
+        int maxRing = (int) Math.ceil(maxRadiusInMeters / ringWidthInMeters) + 1;
+
+        PriorityQueue<NearbyUser> best = new PriorityQueue<>(
+                k, Comparator.comparingDouble(NearbyUser::distanceInMeters).reversed());
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                if (best.size() == k && (ring - 1) * ringWidthInMeters > best.peek().distanceInMeters()) {
+                    break;
+                }
+                for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                    boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(step, 1)) {
+                        collectNearest(GeoMath.cellKey(row, column), latitude, longitude, k, maxRadiusInMeters,
+                                excludedUserId, now, best);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<NearbyUser> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyUser::distanceInMeters));
+        return result;
+    }
+
+    public Optional<double[]> findPosition(String userId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new double[]{latitudes[slot], longitudes[slot]});
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getCellSizeDegrees() {
+        return cellSizeDegrees;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByUserId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.position-eviction-interval-ms:30000}")
+    public void evictStalePositions() {
+        long now = System.currentTimeMillis();
+        List<PositionStateChange> evicted = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < highWaterMark; slot++) {
+                if (userIds[slot] != null && now - updatedAt[slot] > ttlMillis) {
+                    evicted.add(new PositionStateChange(userIds[slot], latitudes[slot], longitudes[slot], updatedAt[slot], visible[slot]));
+                    releaseSlot(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!evicted.isEmpty()) {
+            evicted.forEach(position -> stateChangelog.positionRemoved(position.userId(), position.latitude(), position.longitude()));
+            log.info("Evicted {} stale user positions", evicted.size());
+        }
+    }
+
+    private List<NearbyUser> collectWithinRadius(double latitude, double longitude, double radiusInMeters,
+                                                 String excludedUserId, boolean includeHidden) {
+        long now = System.currentTimeMillis();
+        double latitudeDelta = GeoMath.metersToLatitudeDegrees(radiusInMeters);
+        double longitudeDelta = GeoMath.metersToLongitudeDegrees(radiusInMeters, latitude);
+
+        int minRow = GeoMath.cellRow(latitude - latitudeDelta, cellSizeDegrees);
+        int maxRow = GeoMath.cellRow(latitude + latitudeDelta, cellSizeDegrees);
+        int minColumn = GeoMath.cellColumn(longitude - longitudeDelta, cellSizeDegrees);
+        int maxColumn = GeoMath.cellColumn(longitude + longitudeDelta, cellSizeDegrees);
+
+        List<NearbyUser> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    IntBag bag = cells.get(GeoMath.cellKey(row, column));
+                    if (bag == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bag.size(); i++) {
+                        int slot = bag.get(i);
+                        if (!(includeHidden ? isFresh(slot, now) : isCandidate(slot, now, excludedUserId))) {
+                            continue;
+                        }
+                        double distance = GeoMath.distanceInMeters(latitude, longitude, latitudes[slot], longitudes[slot]);
+                        if (distance <= radiusInMeters) {
+                            result.add(new NearbyUser(userIds[slot], latitudes[slot], longitudes[slot], distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    private void collectNearest(long cellKey, double latitude, double longitude, int k, double maxRadiusInMeters,
+                                String excludedUserId, long now, PriorityQueue<NearbyUser> best) {
+        IntBag bag = cells.get(cellKey);
+        if (bag == null) {
+            return;
+        }
+        for (int i = 0; i < bag.size(); i++) {
+            int slot = bag.get(i);
+            if (!isCandidate(slot, now, excludedUserId)) {
+                continue;
+            }
+            double distance = GeoMath.distanceInMeters(latitude, longitude, latitudes[slot], longitudes[slot]);
+            if (distance > maxRadiusInMeters) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new NearbyUser(userIds[slot], latitudes[slot], longitudes[slot], distance));
+            } else if (distance < best.peek().distanceInMeters()) {
+                best.poll();
+                best.add(new NearbyUser(userIds[slot], latitudes[slot], longitudes[slot], distance));
+            }
+        }
+    }
+
+    private boolean isCandidate(int slot, long now, String excludedUserId) {
+        return visible[slot] && isFresh(slot, now) && !userIds[slot].equals(excludedUserId);
+    }
+
+    private boolean isFresh(int slot, long now) {
+        return now - updatedAt[slot] <= ttlMillis;
+    }
+
+    private boolean put(String userId, double latitude, double longitude, long updatedAtMillis, boolean showUsers) {
+        long cellKey = GeoMath.cellKey(latitude, longitude, cellSizeDegrees);
+
+        Integer existingSlot = slotByUserId.get(userId);
+        boolean cellChanged = true;
+        int slot;
+        if (existingSlot == null) {
+            slot = allocateSlot();
+            userIds[slot] = userId;
+            slotByUserId.put(userId, slot);
+            cells.computeIfAbsent(cellKey, key -> new IntBag()).add(slot);
+        } else {
+            slot = existingSlot;
+            if (cellKeys[slot] != cellKey) {
+                removeFromCell(cellKeys[slot], slot);
+                cells.computeIfAbsent(cellKey, key -> new IntBag()).add(slot);
+            } else {
+                cellChanged = false;
+            }
+        }
+
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        updatedAt[slot] = updatedAtMillis;
+        cellKeys[slot] = cellKey;
+        visible[slot] = showUsers;
+        return cellChanged;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWaterMark == userIds.length) {
+            grow();
+        }
+        return highWaterMark++;
+    }
+
+    private void releaseSlot(int slot) {
+        removeFromCell(cellKeys[slot], slot);
+        slotByUserId.remove(userIds[slot]);
+        userIds[slot] = null;
+        visible[slot] = false;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void removeFromCell(long cellKey, int slot) {
+        IntBag bag = cells.get(cellKey);
+        if (bag != null && bag.remove(slot) && bag.isEmpty()) {
+            cells.remove(cellKey);
+        }
+    }
+
+    private void grow() {
+        int capacity = userIds.length * 2;
+        userIds = Arrays.copyOf(userIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.novus.map_service.jfr;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventSettings;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class FlightRecorderManager {
+
+    public static final String CONTINUOUS = "continuous";
+    public static final String ON_DEMAND = "on-demand";
+
+    private static final List<Class<? extends Event>> PHASE_EVENTS = List.of(
+            MessageProcessedEvent.class,
+            MessageDeserializedEvent.class,
+            MessageHandledEvent.class,
+            UnitOfWorkCommittedEvent.class,
+            ReplyPublishedEvent.class,
+            LogSubmittedEvent.class,
+            LogBatchWrittenEvent.class
+    );
+
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation"
+    );
+
+    private final EnvConfiguration envConfiguration;
+    private final Map<String, Recording> recordings = new LinkedHashMap<>();
+
+    public FlightRecorderManager(EnvConfiguration envConfiguration) {
+        this.envConfiguration = envConfiguration;
+        PHASE_EVENTS.forEach(FlightRecorder::register);
+        FlightRecorder.register(MongoCommandEvent.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startContinuousRecording() {
+        if (!envConfiguration.isJfrContinuousRecording() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        Recording recording = new Recording();
+        recording.setName("map-service-" + CONTINUOUS);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(envConfiguration.getJfrMaxAgeSeconds()));
+        recording.setMaxSize(envConfiguration.getJfrMaxSizeMb() * 1024 * 1024);
+        enableServiceEvents(recording);
+        recording.start();
+        recordings.put(CONTINUOUS, recording);
+        log.info("Started continuous flight recording of map-service events");
+    }
+
+    public synchronized Map<String, Object> startOnDemandRecording(Duration duration) throws IOException, ParseException {
+        stop(ON_DEMAND);
+
+        Recording recording = new Recording(Configuration.getConfiguration(envConfiguration.getJfrOnDemandSettings()));
+        recording.setName("map-service-" + ON_DEMAND);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(envConfiguration.getJfrMaxAgeSeconds()));
+        recording.setMaxSize(envConfiguration.getJfrMaxSizeMb() * 1024 * 1024);
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        enableServiceEvents(recording);
+        recording.start();
+        recordings.put(ON_DEMAND, recording);
+        log.info("Started on-demand flight recording with '{}' settings", envConfiguration.getJfrOnDemandSettings());
+        return status();
+    }
+
+    public synchronized Path dump(String name) throws IOException {
+        Recording recording = recordings.get(name);
+        if (recording == null) {
+            throw new IllegalArgumentException("No " + name + " flight recording");
+        }
+        Path directory = Files.createDirectories(Path.of(envConfiguration.getJfrDumpDirectory()));
+        Path file = directory.resolve("map-service-" + name + "-" + System.currentTimeMillis() + ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    public synchronized Map<String, Object> stop(String name) {
+        Recording recording = recordings.remove(name);
+        if (recording != null) {
+            recording.close();
+        }
+        return status();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        recordings.forEach((name, recording) -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", recording.getState().name());
+            details.put("startTime", recording.getStartTime());
+            details.put("maxAge", recording.getMaxAge());
+            details.put("size", recording.getSize());
+            status.put(name, details);
+        });
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private void enableServiceEvents(Recording recording) {
+        Duration threshold = Duration.ofMillis(envConfiguration.getJfrEventThresholdMs());
+        for (Class<? extends Event> eventClass : PHASE_EVENTS) {
+            configure(recording.enable(eventClass), threshold);
+        }
+        configure(recording.enable(MongoCommandEvent.class), Duration.ofMillis(envConfiguration.getJfrMongoCommandThresholdMs()));
+    }
+
+    private void configure(EventSettings settings, Duration threshold) {
+        settings.withThreshold(threshold);
+        if (envConfiguration.isJfrStackTraces()) {
+            settings.withStackTrace();
+        } else {
+            settings.withoutStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.novus.map_service.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "flightrecording")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    private final FlightRecorderManager flightRecorderManager;
+
+    @ReadOperation
+    public Map<String, Object> recordings() {
+        return flightRecorderManager.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Long durationSeconds) throws IOException, ParseException {
+        return flightRecorderManager.startOnDemandRecording(durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump(@Selector String recording) throws IOException {
+        Path file = flightRecorderManager.dump(recording);
+        return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop(@Selector String recording) {
+        return flightRecorderManager.stop(recording);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.novus.map_service.jfr;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JfrMongoCommandListener implements CommandListener {
+
+    private final Map<Integer, MongoCommandEvent> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent startedEvent) {
+        MongoCommandEvent event = new MongoCommandEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.commandName = startedEvent.getCommandName();
+        event.databaseName = startedEvent.getDatabaseName();
+        event.begin();
+        inFlight.put(startedEvent.getRequestId(), event);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent succeededEvent) {
+        complete(succeededEvent.getRequestId(), true);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent failedEvent) {
+        complete(failedEvent.getRequestId(), false);
+    }
+
+    private void complete(int requestId, boolean succeeded) {
+        MongoCommandEvent event = inFlight.remove(requestId);
+        if (event != null) {
+            event.end();
+            event.succeeded = succeeded;
+            MessageEvents.commit(event);
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.LogBatchWritten")
+@Label("Log Batch Written")
+@Description("Time spent writing a batch of log entries to one sink")
+@Category({"Map Service", "Logging"})
+public class LogBatchWrittenEvent extends Event {
+
+    @Label("Sink")
+    public String sink;
+
+    @Label("Entries")
+    public int entries;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+}
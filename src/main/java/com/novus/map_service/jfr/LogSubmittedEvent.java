@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.LogSubmitted")
+@Label("Log Submitted")
+@Description("Time spent building a log entry and queueing it for the log writer")
+public class LogSubmittedEvent extends MessageEvent {
+}
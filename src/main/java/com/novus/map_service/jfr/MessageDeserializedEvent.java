@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.MessageDeserialized")
+@Label("Message Deserialized")
+@Description("Time spent parsing the record's JSON payload into a KafkaMessage")
+public class MessageDeserializedEvent extends MessageEvent {
+}
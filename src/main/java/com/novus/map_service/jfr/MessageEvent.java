@@ -0,0 +1,22 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+@Category({"Map Service", "Message Processing"})
+public abstract class MessageEvent extends Event {
+
+    @Label("Operation Key")
+    String operationKey;
+
+    @Label("Partition")
+    int partition;
+
+    @Label("Offset")
+    long offset;
+
+    @Label("User Id")
+    String userId;
+
+}
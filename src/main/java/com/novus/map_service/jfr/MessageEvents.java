@@ -0,0 +1,59 @@
+package com.novus.map_service.jfr;
+
+public final class MessageEvents {
+
+    private static final ThreadLocal<MessageContext> CURRENT = new ThreadLocal<>();
+
+    private MessageEvents() {
+    }
+
+    public static void open(String operationKey, int partition, long offset) {
+        CURRENT.set(new MessageContext(operationKey, partition, offset));
+    }
+
+    public static void identify(String userId) {
+        MessageContext context = CURRENT.get();
+        if (context != null) {
+            context.userId = userId;
+        }
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    public static <T extends MessageEvent> T begin(T event) {
+        if (event.isEnabled()) {
+            event.begin();
+        }
+        return event;
+    }
+
+    public static void commit(MessageEvent event) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        MessageContext context = CURRENT.get();
+        if (context != null) {
+            event.operationKey = context.operationKey;
+            event.partition = context.partition;
+            event.offset = context.offset;
+            event.userId = context.userId;
+        }
+        event.commit();
+    }
+
+    private static final class MessageContext {
+        private final String operationKey;
+        private final int partition;
+        private final long offset;
+        private String userId;
+
+        private MessageContext(String operationKey, int partition, long offset) {
+            this.operationKey = operationKey;
+            this.partition = partition;
+            this.offset = offset;
+        }
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.MessageHandled")
+@Label("Message Handled")
+@Description("Time spent in the operation's service handler")
+public class MessageHandledEvent extends MessageEvent {
+}
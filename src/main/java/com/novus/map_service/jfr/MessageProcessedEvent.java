@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.MessageProcessed")
+@Label("Message Processed")
+@Description("Time spent on a map-service record, from receipt to acknowledgment")
+public class MessageProcessedEvent extends MessageEvent {
+}
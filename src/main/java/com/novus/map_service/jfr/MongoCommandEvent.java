@@ -0,0 +1,23 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.MongoCommand")
+@Label("Mongo Command")
+@Description("A command sent to Mongo by the blocking driver, tagged with the message being processed on the calling thread")
+@Category({"Map Service", "Mongo"})
+public class MongoCommandEvent extends MessageEvent {
+
+    @Label("Command")
+    String commandName;
+
+    @Label("Database")
+    String databaseName;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+}
@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.ReplyPublished")
+@Label("Reply Published")
+@Description("Time spent serializing a read result and handing it to the reply producer")
+public class ReplyPublishedEvent extends MessageEvent {
+}
@@ -0,0 +1,11 @@
+package com.novus.map_service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.novus.map_service.UnitOfWorkCommitted")
+@Label("Unit Of Work Committed")
+@Description("Time spent flushing the writes recorded while handling the message")
+public class UnitOfWorkCommittedEvent extends MessageEvent {
+}
@@ -1,8 +1,10 @@
 package com.novus.map_service.services;
 
 import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.dao.AdminDashboardDaoUtils;
 import com.novus.map_service.dao.UserDaoUtils;
 import com.novus.map_service.utils.LogUtils;
+import com.novus.shared_models.common.AdminDashboard.AdminDashboard;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
 import com.novus.shared_models.common.Log.HttpMethod;
 import com.novus.shared_models.common.Log.LogLevel;
@@ -11,9 +13,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,14 +21,18 @@ public class AdminDashboardService {
     private final LogUtils logUtils;
     private final UserDaoUtils userDaoUtils;
     private final DateConfiguration dateConfiguration;
+    private final AdminDashboardDaoUtils adminDashboardDaoUtils;
 
-    public void processGetMapAdminDashboardData(KafkaMessage kafkaMessage) {
+    public AdminDashboard processGetMapAdminDashboardData(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
         log.info("Starting to process map admin dashboard data request for user: {}", authenticatedUser.getId());
 
         try {
+            AdminDashboard adminDashboard = adminDashboardDaoUtils.find()
+                    .orElseThrow(() -> new RuntimeException("Admin dashboard not found"));
+
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -43,22 +46,17 @@ public class AdminDashboardService {
                     authenticatedUser.getId()
             );
             log.info("Map admin dashboard data successfully retrieved for user: {}", authenticatedUser.getId());
+            return adminDashboard;
         } catch (Exception e) {
             log.error("Error occurred while processing map admin dashboard data request: {}", e.getMessage());
-            StringWriter sw = new StringWriter();
-            PrintWriter pw = new PrintWriter(sw);
-            e.printStackTrace(pw);
-            String stackTrace = sw.toString();
-
-            logUtils.buildAndSaveLog(
-                    LogLevel.ERROR,
+            logUtils.buildAndSaveErrorLog(
                     "GET_MAP_ADMIN_DASHBOARD_DATA_ERROR",
                     kafkaMessage.getIpAddress(),
                     "Error processing get map admin dashboard data request: " + e.getMessage(),
                     HttpMethod.GET,
                     "/private/admin/map/dashboard-data",
                     "map-service",
-                    stackTrace,
+                    e,
                     authenticatedUser.getId()
             );
             throw new RuntimeException("Failed to process get map admin dashboard data request: " + e.getMessage(), e);
@@ -1,10 +1,18 @@
 package com.novus.map_service.services;
 
 import com.novus.map_service.UuidProvider;
+import com.novus.map_service.archive.AlertArchiveScanner;
 import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
 import com.novus.map_service.dao.AdminDashboardDaoUtils;
 import com.novus.map_service.dao.AlertDaoUtils;
+import com.novus.map_service.dao.RouteDaoUtils;
+import com.novus.map_service.dao.UnitOfWorkManager;
+import com.novus.map_service.dao.UserCache;
 import com.novus.map_service.dao.UserDaoUtils;
+import com.novus.map_service.dao.UserRanks;
+import com.novus.map_service.geo.NearbyAlert;
+import com.novus.map_service.geo.ProximityAlertEngine;
 import com.novus.map_service.utils.LogUtils;
 import com.novus.shared_models.GeoPoint;
 import com.novus.shared_models.common.AdminDashboard.AdminDashboard;
@@ -13,16 +21,17 @@ import com.novus.shared_models.common.Alert.AlertType;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
 import com.novus.shared_models.common.Log.HttpMethod;
 import com.novus.shared_models.common.Log.LogLevel;
+import com.novus.shared_models.common.Route.Route;
 import com.novus.shared_models.common.User.User;
-import com.novus.shared_models.common.User.UserRank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.errors.ResourceNotFoundException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -37,6 +46,12 @@ public class AlertService {
     private final UserDaoUtils userDaoUtils;
     private final DateConfiguration dateConfiguration;
     private final AdminDashboardDaoUtils adminDashboardDaoUtils;
+    private final ProximityAlertEngine proximityAlertEngine;
+    private final RouteDaoUtils routeDaoUtils;
+    private final EnvConfiguration envConfiguration;
+    private final UserCache userCache;
+    private final AlertArchiveScanner alertArchiveScanner;
+    private final UnitOfWorkManager unitOfWorkManager;
 
     public void processSaveNewAlert(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
@@ -67,10 +82,11 @@ public class AlertService {
                     .build();
 
             alertDaoUtils.save(alert);
+            unitOfWorkManager.afterCommit(() -> proximityAlertEngine.onAlertChanged(alert));
 
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
             authenticatedUser.getStats().setTotalReportsSubmitted(authenticatedUser.getStats().getTotalReportsSubmitted() + 1);
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.update(authenticatedUser, new Update().inc("stats.totalReportsSubmitted", 1), "lastActivityDate");
 
             Optional<AdminDashboard> optionalAdminDashboard = adminDashboardDaoUtils.find();
             if (optionalAdminDashboard.isEmpty()) {
@@ -115,15 +131,26 @@ public class AlertService {
         }
     }
 
-    public void processGetAllAlertsByPosition(KafkaMessage kafkaMessage) {
+    public List<NearbyAlert> processGetAllAlertsByPosition(KafkaMessage kafkaMessage) {
+        Map<String, String> request = kafkaMessage.getRequest();
         log.info("Starting to process get all alerts by position request");
 
+        List<NearbyAlert> alerts = List.of();
         try {
+            double latitude = Double.parseDouble(request.get("latitude"));
+            double longitude = Double.parseDouble(request.get("longitude"));
+            double radiusInMeters = request.get("radiusInMeters") != null
+                    ? Double.parseDouble(request.get("radiusInMeters"))
+                    : envConfiguration.getAlertsByPositionDefaultRadiusInMeters();
+
+            alerts = proximityAlertEngine.findWithinRadius(latitude, longitude, radiusInMeters);
+            alerts.sort(Comparator.comparingDouble(NearbyAlert::distanceInMeters));
+
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
                     "GET_ALL_ALERTS_BY_POSITION_SUCCESS",
                     kafkaMessage.getIpAddress(),
-                    "Successfully retrieved alerts by position",
+                    String.format("Successfully retrieved %d alerts by position", alerts.size()),
                     HttpMethod.GET,
                     "/map/alerts/position",
                     "map-service",
@@ -137,17 +164,35 @@ public class AlertService {
                     "Error processing get alerts by position request",
                     HttpMethod.GET, "/map/alerts/position", null);
         }
+        return alerts;
     }
 
-    public void processGetAllAlertsByRoute(KafkaMessage kafkaMessage) {
+    public List<NearbyAlert> processGetAllAlertsByRoute(KafkaMessage kafkaMessage) {
+        Map<String, String> request = kafkaMessage.getRequest();
         log.info("Starting to process get all alerts by route request");
 
+        List<NearbyAlert> alerts = List.of();
         try {
+            String routeId = request.get("routeId");
+
+            Optional<Route> optionalRoute = routeDaoUtils.findById(routeId);
+            if (optionalRoute.isEmpty()) {
+                String errorMessage = String.format("Route with ID '%s' not found", routeId);
+                throw new ResourceNotFoundException(errorMessage);
+            }
+
+            Route route = optionalRoute.get();
+            alerts = proximityAlertEngine.findAlongSegment(
+                    route.getStartPoint().getLatitude(), route.getStartPoint().getLongitude(),
+                    route.getEndPoint().getLatitude(), route.getEndPoint().getLongitude(),
+                    envConfiguration.getAlertsByRouteCorridorInMeters()
+            );
+
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
                     "GET_ALL_ALERTS_BY_ROUTE_SUCCESS",
                     kafkaMessage.getIpAddress(),
-                    "Successfully retrieved alerts by route",
+                    String.format("Successfully retrieved %d alerts along route '%s'", alerts.size(), routeId),
                     HttpMethod.GET,
                     "/map/alerts/route",
                     "map-service",
@@ -161,6 +206,43 @@ public class AlertService {
                     "Error processing get alerts by route request",
                     HttpMethod.GET, "/map/alerts/route", null);
         }
+        return alerts;
+    }
+
+    public List<Alert> processGetArchivedAlerts(KafkaMessage kafkaMessage) {
+        Map<String, String> request = kafkaMessage.getRequest();
+        log.info("Starting to process get archived alerts request");
+
+        List<Alert> alerts = List.of();
+        try {
+            Date from = new Date(Long.parseLong(request.get("from")));
+            Date to = new Date(Long.parseLong(request.get("to")));
+            double minLatitude = Double.parseDouble(request.get("minLatitude"));
+            double minLongitude = Double.parseDouble(request.get("minLongitude"));
+            double maxLatitude = Double.parseDouble(request.get("maxLatitude"));
+            double maxLongitude = Double.parseDouble(request.get("maxLongitude"));
+
+            alerts = alertArchiveScanner.scan(from, to, minLatitude, minLongitude, maxLatitude, maxLongitude);
+
+            logUtils.buildAndSaveLog(
+                    LogLevel.INFO,
+                    "GET_ARCHIVED_ALERTS_SUCCESS",
+                    kafkaMessage.getIpAddress(),
+                    String.format("Successfully retrieved %d archived alerts", alerts.size()),
+                    HttpMethod.GET,
+                    "/map/alerts/history",
+                    "map-service",
+                    null,
+                    null
+            );
+            log.info("Archived alerts successfully retrieved");
+        } catch (Exception e) {
+            log.error("Error occurred while processing get archived alerts request: {}", e.getMessage());
+            logError(e, kafkaMessage, "GET_ARCHIVED_ALERTS_ERROR",
+                    "Error processing get archived alerts request",
+                    HttpMethod.GET, "/map/alerts/history", null);
+        }
+        return alerts;
     }
 
     public void processValidateUserAlert(KafkaMessage kafkaMessage) {
@@ -194,7 +276,7 @@ public class AlertService {
             int alertOwnerTrustScore = alertOwner.getStats().getTrustScore();
             alertOwner.getStats().setTrustScore(alertOwnerTrustScore +1);
 
-            updateUserRank(alertOwner);
+            UserRanks.apply(alertOwner);
 
             Date currentExpirationDate = alert.getExpiresAt();
             Date newExpirationDate = new Date(currentExpirationDate.getTime() + (15 * 60 * 1000));
@@ -210,9 +292,16 @@ public class AlertService {
             alertOwner.setUpdatedAt(dateConfiguration.newDate());
             authenticatedUser.setUpdatedAt(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
-            userDaoUtils.save(alertOwner);
-            alertDaoUtils.save(alert);
+            userDaoUtils.update(authenticatedUser, new Update().inc("stats.validatedReports", 1), "lastActivityDate");
+            userDaoUtils.update(alertOwner, new Update()
+                    .inc("stats.reportsValidatedByOthers", 1)
+                    .inc("stats.trustScore", 1));
+            userDaoUtils.refreshRank(alertOwner.getId());
+            alertDaoUtils.recordVote(alert, true);
+            unitOfWorkManager.afterCommit(() -> {
+                userCache.evict(alertOwner.getId());
+                proximityAlertEngine.onAlertVoted(alert, true);
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -267,7 +356,7 @@ public class AlertService {
             int alertOwnerTrustScore = alertOwner.getStats().getTrustScore();
             alertOwner.getStats().setTrustScore(alertOwnerTrustScore -1);
 
-            updateUserRank(alertOwner);
+            UserRanks.apply(alertOwner);
 
             Date currentExpirationDate = alert.getExpiresAt();
             Date newExpirationDate = new Date(currentExpirationDate.getTime() - (5 * 60 * 1000));
@@ -283,9 +372,14 @@ public class AlertService {
             alertOwner.setUpdatedAt(dateConfiguration.newDate());
             authenticatedUser.setUpdatedAt(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
-            userDaoUtils.save(alertOwner);
-            alertDaoUtils.save(alert);
+            userDaoUtils.update(authenticatedUser, new Update().inc("stats.validatedReports", 1), "lastActivityDate");
+            userDaoUtils.update(alertOwner, new Update().inc("stats.trustScore", -1));
+            userDaoUtils.refreshRank(alertOwner.getId());
+            alertDaoUtils.recordVote(alert, false);
+            unitOfWorkManager.afterCommit(() -> {
+                userCache.evict(alertOwner.getId());
+                proximityAlertEngine.onAlertVoted(alert, false);
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -313,33 +407,6 @@ public class AlertService {
         }
     }
 
-    private void updateUserRank(User user) {
-        if (user.getStats().getTrustScore() <= 50) {
-            user.getStats().setRank(UserRank.NAVIGATOR_NOVICE);
-            user.getStats().setRankImage("https://i.ibb.co/dw3g2VJg/Season-2023-Emerald.webp");
-        }
-
-        if (user.getStats().getTrustScore() > 50 && user.getStats().getTrustScore() <= 60) {
-            user.getStats().setRank(UserRank.ROAD_EXPLORER);
-            user.getStats().setRankImage("https://i.ibb.co/46pfzD8/Diamond-aca4ca7.png");
-        }
-
-        if (user.getStats().getTrustScore() > 60 && user.getStats().getTrustScore() <= 70) {
-            user.getStats().setRank(UserRank.TRAFFIC_SCOUT);
-            user.getStats().setRankImage("https://i.ibb.co/gMDTPvTF/Season-2022-Master.webp");
-        }
-
-        if (user.getStats().getTrustScore() > 70 && user.getStats().getTrustScore() <= 80) {
-            user.getStats().setRank(UserRank.ROUTE_MASTER);
-            user.getStats().setRankImage("https://i.ibb.co/cSTHVtcv/Season-2023-Grandmaster.webp");
-        }
-
-        if (user.getStats().getTrustScore() > 80) {
-            user.getStats().setRank(UserRank.NAVIGATION_LEGEND);
-            user.getStats().setRankImage("https://i.ibb.co/jZqTHfcr/Season-2022-Challenger.webp");
-        }
-    }
-
     private String generateAlertDescription(String alertType) {
         return switch (alertType) {
             case "ACCIDENT" -> "Traffic accident reported in this area. Use caution and consider alternative routes.";
@@ -356,20 +423,14 @@ public class AlertService {
 
     private void logError(Exception e, KafkaMessage kafkaMessage, String errorCode,
                           String message, HttpMethod httpMethod, String endpoint, User user) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTrace = sw.toString();
-
-        logUtils.buildAndSaveLog(
-                LogLevel.ERROR,
+        logUtils.buildAndSaveErrorLog(
                 errorCode,
                 kafkaMessage.getIpAddress(),
                 message + ": " + e.getMessage(),
                 httpMethod,
                 endpoint,
                 "map-service",
-                stackTrace,
+                e,
                 user != null ? user.getId() : null
         );
         throw new RuntimeException(message + ": " + e.getMessage(), e);
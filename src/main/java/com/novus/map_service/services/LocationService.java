@@ -2,8 +2,14 @@ package com.novus.map_service.services;
 
 import com.novus.map_service.UuidProvider;
 import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.FavoriteLocationCache;
 import com.novus.map_service.dao.LocationDaoUtils;
+import com.novus.map_service.dao.UnitOfWorkManager;
 import com.novus.map_service.dao.UserDaoUtils;
+import com.novus.map_service.geo.FavoriteLocationIndex;
+import com.novus.map_service.geo.NearestFavoriteLocation;
+import com.novus.map_service.geo.NearestFavoriteLocator;
 import com.novus.map_service.utils.LogUtils;
 import com.novus.shared_models.GeoPoint;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
@@ -15,10 +21,9 @@ import com.novus.shared_models.common.User.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.errors.ResourceNotFoundException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -34,20 +39,29 @@ public class LocationService {
     private final UserDaoUtils userDaoUtils;
     private final UuidProvider uuidProvider;
     private final DateConfiguration dateConfiguration;
+    private final FavoriteLocationIndex favoriteLocationIndex;
+    private final FavoriteLocationCache favoriteLocationCache;
+    private final NearestFavoriteLocator nearestFavoriteLocator;
+    private final EnvConfiguration envConfiguration;
+    private final UnitOfWorkManager unitOfWorkManager;
 
-    public void processGetUserFavoriteLocations(KafkaMessage kafkaMessage) {
+    public List<Location> processGetUserFavoriteLocations(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
         log.info("Starting to process get user favorite locations request for user: {}", authenticatedUser.getId());
 
+        List<Location> favoriteLocations = List.of();
         try {
+            favoriteLocations = favoriteLocationCache.getFavorites(authenticatedUser);
+
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
                     "GET_USER_FAVORITE_LOCATIONS_SUCCESS",
                     kafkaMessage.getIpAddress(),
-                    String.format("User with ID '%s' retrieved their favorite locations", authenticatedUser.getId()),
+                    String.format("User with ID '%s' retrieved their %d favorite locations",
+                            authenticatedUser.getId(), favoriteLocations.size()),
                     HttpMethod.GET,
                     "/private/map/favorite/locations",
                     "map-service",
@@ -61,6 +75,44 @@ public class LocationService {
                     "Error processing get user favorite locations request",
                     HttpMethod.GET, "/private/map/favorite/locations", authenticatedUser);
         }
+        return favoriteLocations;
+    }
+
+    public List<NearestFavoriteLocation> processGetNearestFavoriteLocations(KafkaMessage kafkaMessage) {
+        User authenticatedUser = kafkaMessage.getAuthenticatedUser();
+        Map<String, String> request = kafkaMessage.getRequest();
+        log.info("Starting to process get nearest favorite locations request for user: {}", authenticatedUser.getId());
+
+        List<NearestFavoriteLocation> nearestFavoriteLocations = List.of();
+        try {
+            double latitude = Double.parseDouble(request.get("latitude"));
+            double longitude = Double.parseDouble(request.get("longitude"));
+            int limit = request.get("limit") != null
+                    ? Integer.parseInt(request.get("limit"))
+                    : envConfiguration.getNearestFavoriteLocationsDefaultLimit();
+
+            nearestFavoriteLocations = nearestFavoriteLocator.findNearest(authenticatedUser, latitude, longitude, limit);
+
+            logUtils.buildAndSaveLog(
+                    LogLevel.INFO,
+                    "GET_NEAREST_FAVORITE_LOCATIONS_SUCCESS",
+                    kafkaMessage.getIpAddress(),
+                    String.format("User with ID '%s' retrieved their %d nearest favorite locations",
+                            authenticatedUser.getId(), nearestFavoriteLocations.size()),
+                    HttpMethod.GET,
+                    "/private/map/favorite/locations/nearest",
+                    "map-service",
+                    null,
+                    authenticatedUser.getId()
+            );
+            log.info("Nearest favorite locations successfully retrieved for user: {}", authenticatedUser.getId());
+        } catch (Exception e) {
+            log.error("Error occurred while processing get nearest favorite locations request: {}", e.getMessage());
+            logError(e, kafkaMessage, "GET_NEAREST_FAVORITE_LOCATIONS_ERROR",
+                    "Error processing get nearest favorite locations request",
+                    HttpMethod.GET, "/private/map/favorite/locations/nearest", authenticatedUser);
+        }
+        return nearestFavoriteLocations;
     }
 
     public void processSaveNewUserFavoriteLocation(KafkaMessage kafkaMessage) {
@@ -110,7 +162,12 @@ public class LocationService {
             favoriteLocationIds.add(location.getId());
 
             locationDaoUtils.save(location);
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.update(authenticatedUser, new Update().addToSet("favoriteLocationIds", location.getId()),
+                    "lastActivityDate");
+            unitOfWorkManager.afterCommit(() -> {
+                favoriteLocationCache.onLocationSaved(authenticatedUser.getId(), location);
+                favoriteLocationIndex.onLocationSaved(authenticatedUser.getId(), location);
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -149,7 +206,7 @@ public class LocationService {
             authenticatedUser.getFavoriteLocationIds().remove(locationId);
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.update(authenticatedUser, new Update().pull("favoriteLocationIds", locationId), "lastActivityDate");
 
             Optional<Location> optionalLocation = locationDaoUtils.findById(locationId);
             if (optionalLocation.isEmpty()) {
@@ -158,6 +215,10 @@ public class LocationService {
             }
 
             locationDaoUtils.delete(optionalLocation.get());
+            unitOfWorkManager.afterCommit(() -> {
+                favoriteLocationCache.onLocationDeleted(authenticatedUser.getId(), locationId);
+                favoriteLocationIndex.onLocationDeleted(authenticatedUser.getId(), locationId);
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -202,6 +263,11 @@ public class LocationService {
             double latitude = Double.parseDouble(request.get("latitude"));
             double longitude = Double.parseDouble(request.get("longitude"));
 
+            if (!authenticatedUser.getFavoriteLocationIds().contains(locationId)) {
+                String errorMessage = String.format("Location with ID '%s' not found in user's favorites", locationId);
+                throw new ResourceNotFoundException(errorMessage);
+            }
+
             Optional<Location> optionalLocation = locationDaoUtils.findById(locationId);
             if (optionalLocation.isEmpty()) {
                 String errorMessage = String.format("Location with ID '%s' not found in database", locationId);
@@ -227,8 +293,12 @@ public class LocationService {
 
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
             locationDaoUtils.save(optionalLocation.get());
+            unitOfWorkManager.afterCommit(() -> {
+                favoriteLocationCache.onLocationSaved(authenticatedUser.getId(), location);
+                favoriteLocationIndex.onLocationSaved(authenticatedUser.getId(), location);
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -243,6 +313,11 @@ public class LocationService {
                     authenticatedUser.getId()
             );
             log.info("Favorite location with ID {} successfully updated for user: {}", locationId, authenticatedUser.getId());
+        } catch (ResourceNotFoundException e) {
+            log.error("Error occurred while processing update user favorite location request: {}", e.getMessage());
+            logError(e, kafkaMessage, "UPDATE_USER_FAVORITE_LOCATION_ERROR",
+                    e.getMessage(),
+                    HttpMethod.PUT, "/private/map/favorite/location/{id}" + request.get("locationId"), authenticatedUser);
         } catch (Exception e) {
             log.error("Error occurred while processing update user favorite location request: {}", e.getMessage());
             logError(e, kafkaMessage, "UPDATE_USER_FAVORITE_LOCATION_ERROR",
@@ -253,20 +328,14 @@ public class LocationService {
 
     private void logError(Exception e, KafkaMessage kafkaMessage, String errorCode,
                           String message, HttpMethod httpMethod, String endpoint, User user) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTrace = sw.toString();
-
-        logUtils.buildAndSaveLog(
-                LogLevel.ERROR,
+        logUtils.buildAndSaveErrorLog(
                 errorCode,
                 kafkaMessage.getIpAddress(),
                 message + ": " + e.getMessage(),
                 httpMethod,
                 endpoint,
                 "map-service",
-                stackTrace,
+                e,
                 user != null ? user.getId() : null
         );
         throw new RuntimeException(message + ": " + e.getMessage(), e);
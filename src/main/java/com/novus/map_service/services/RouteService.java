@@ -2,8 +2,11 @@ package com.novus.map_service.services;
 
 import com.novus.map_service.UuidProvider;
 import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
 import com.novus.map_service.dao.AdminDashboardDaoUtils;
 import com.novus.map_service.dao.RouteDaoUtils;
+import com.novus.map_service.dao.RouteHistoryCursor;
+import com.novus.map_service.dao.RouteHistoryPage;
 import com.novus.map_service.dao.UserDaoUtils;
 import com.novus.map_service.utils.LogUtils;
 import com.novus.shared_models.GeoPoint;
@@ -17,10 +20,10 @@ import com.novus.shared_models.common.User.UserStats;
 import com.novus.shared_models.response.Map.HourlyRouteRecalculationResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +40,7 @@ public class RouteService {
     private final UuidProvider uuidProvider;
     private final DateConfiguration dateConfiguration;
     private final AdminDashboardDaoUtils adminDashboardDaoUtils;
+    private final EnvConfiguration envConfiguration;
 
     public void processSaveUserRoute(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
@@ -72,6 +76,7 @@ public class RouteService {
                     .estimatedDurationInSeconds(estimatedDurationInSeconds)
                     .kilometersDistance(kilometersDistance)
                     .userId(authenticatedUser.getId())
+                    .createdAt(dateConfiguration.newDate())
                     .build();
 
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
@@ -86,7 +91,10 @@ public class RouteService {
             stats.setTotalDistanceTraveled(stats.getTotalDistanceTraveled() + (int)Math.round(kilometersDistance));
             stats.setTotalRoutesCompleted(stats.getTotalRoutesCompleted() + 1);
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.update(authenticatedUser, new Update()
+                    .push("recentRouteIds", new Document("$each", List.of(route.getId())).append("$slice", -5))
+                    .inc("stats.totalDistanceTraveled", (int) Math.round(kilometersDistance))
+                    .inc("stats.totalRoutesCompleted", 1), "lastActivityDate");
             routeDaoUtils.save(route);
 
             Optional<AdminDashboard> optionalAdminDashboard = adminDashboardDaoUtils.find();
@@ -131,20 +139,31 @@ public class RouteService {
         }
     }
 
-    public void processGetUserRouteHistory(KafkaMessage kafkaMessage) {
+    public RouteHistoryPage processGetUserRouteHistory(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
+        Map<String, String> request = kafkaMessage.getRequest();
         log.info("Starting to process get user route history request for user: {}", authenticatedUser.getId());
 
+        RouteHistoryPage routeHistoryPage = null;
         try {
+            RouteHistoryCursor cursor = RouteHistoryCursor.decode(request != null ? request.get("cursor") : null);
+            int limit = request != null && request.get("limit") != null
+                    ? Integer.parseInt(request.get("limit"))
+                    : envConfiguration.getRouteHistoryDefaultPageSize();
+            limit = Math.max(1, Math.min(limit, envConfiguration.getRouteHistoryMaxPageSize()));
+
+            routeHistoryPage = routeDaoUtils.findHistoryPage(authenticatedUser.getId(), cursor, limit);
+
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
                     "GET_USER_ROUTE_HISTORY_SUCCESS",
                     kafkaMessage.getIpAddress(),
-                    String.format("User with ID '%s' retrieved their route history", authenticatedUser.getId()),
+                    String.format("User with ID '%s' retrieved %d routes from their route history",
+                            authenticatedUser.getId(), routeHistoryPage.routes().size()),
                     HttpMethod.GET,
                     "/private/map/history/routes",
                     "map-service",
@@ -158,6 +177,7 @@ public class RouteService {
                     "Error processing get user route history request",
                     HttpMethod.GET, "/private/map/history/routes", authenticatedUser);
         }
+        return routeHistoryPage;
     }
 
     public void processSaveNewRouteRecalculation(KafkaMessage kafkaMessage) {
@@ -166,7 +186,7 @@ public class RouteService {
 
         try {
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             Optional<AdminDashboard> optionalAdminDashboard = adminDashboardDaoUtils.find();
             if (optionalAdminDashboard.isEmpty()) {
@@ -230,20 +250,14 @@ public class RouteService {
 
     private void logError(Exception e, KafkaMessage kafkaMessage, String errorCode,
                           String message, HttpMethod httpMethod, String endpoint, User user) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTrace = sw.toString();
-
-        logUtils.buildAndSaveLog(
-                LogLevel.ERROR,
+        logUtils.buildAndSaveErrorLog(
                 errorCode,
                 kafkaMessage.getIpAddress(),
                 message + ": " + e.getMessage(),
                 httpMethod,
                 endpoint,
                 "map-service",
-                stackTrace,
+                e,
                 user != null ? user.getId() : null
         );
         throw new RuntimeException(message + ": " + e.getMessage(), e);
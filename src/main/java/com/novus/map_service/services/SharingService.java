@@ -11,8 +11,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.Map;
 
 @Slf4j
@@ -33,7 +31,7 @@ public class SharingService {
             String qrCodeUrl = request.get("qrCodeUrl");
 
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -65,7 +63,7 @@ public class SharingService {
             String qrCodeUrl = request.get("qrCodeUrl");
 
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -90,20 +88,14 @@ public class SharingService {
 
     private void logError(Exception e, KafkaMessage kafkaMessage, String errorCode,
                           String message, String endpoint, User user) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTrace = sw.toString();
-
-        logUtils.buildAndSaveLog(
-                LogLevel.ERROR,
+        logUtils.buildAndSaveErrorLog(
                 errorCode,
                 kafkaMessage.getIpAddress(),
                 message + ": " + e.getMessage(),
                 HttpMethod.POST,
                 endpoint,
                 "map-service",
-                stackTrace,
+                e,
                 user != null ? user.getId() : null
         );
         throw new RuntimeException(message + ": " + e.getMessage(), e);
@@ -1,7 +1,13 @@
 package com.novus.map_service.services;
 
 import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.UnitOfWorkManager;
 import com.novus.map_service.dao.UserDaoUtils;
+import com.novus.map_service.geo.FavoriteLocationIndex;
+import com.novus.map_service.geo.NearbyUser;
+import com.novus.map_service.geo.ProximityAlertEngine;
+import com.novus.map_service.geo.UserPositionStore;
 import com.novus.map_service.utils.LogUtils;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
 import com.novus.shared_models.common.Log.HttpMethod;
@@ -13,8 +19,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -25,6 +30,11 @@ public class UserNavigationService {
     private final LogUtils logUtils;
     private final UserDaoUtils userDaoUtils;
     private final DateConfiguration dateConfiguration;
+    private final EnvConfiguration envConfiguration;
+    private final UserPositionStore userPositionStore;
+    private final ProximityAlertEngine proximityAlertEngine;
+    private final FavoriteLocationIndex favoriteLocationIndex;
+    private final UnitOfWorkManager unitOfWorkManager;
 
     public void processUpdateUserNavigationPreferences(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
@@ -51,7 +61,13 @@ public class UserNavigationService {
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
             authenticatedUser.setUpdatedAt(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "navigationPreferences", "lastActivityDate");
+            unitOfWorkManager.afterCommit(() -> {
+                if (userPositionStore.updateVisibility(authenticatedUser.getId(), showUsers)) {
+                    userPositionStore.findPosition(authenticatedUser.getId()).ifPresent(position -> proximityAlertEngine
+                            .onUserMoved(authenticatedUser.getId(), position[0], position[1], proximityAlertDistance, false));
+                }
+            });
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
@@ -73,51 +89,100 @@ public class UserNavigationService {
         }
     }
 
-    public void processGetNearbyUsers(KafkaMessage kafkaMessage) {
+    public void processUpdateUserPosition(KafkaMessage kafkaMessage) {
         User authenticatedUser = kafkaMessage.getAuthenticatedUser();
+        Map<String, String> request = kafkaMessage.getRequest();
+
+        try {
+            double latitude = Double.parseDouble(request.get("latitude"));
+            double longitude = Double.parseDouble(request.get("longitude"));
+
+            recordPosition(authenticatedUser, latitude, longitude);
+
+            log.debug("Position updated for user: {}", authenticatedUser.getId());
+        } catch (Exception e) {
+            log.error("Error occurred while processing update user position request: {}", e.getMessage());
+            logError(e, kafkaMessage, "UPDATE_USER_POSITION_ERROR",
+                    "Error processing update user position request",
+                    HttpMethod.PUT, "/private/map/position", authenticatedUser);
+        }
+    }
+
+    public List<NearbyUser> processGetNearbyUsers(KafkaMessage kafkaMessage) {
+        User authenticatedUser = kafkaMessage.getAuthenticatedUser();
+        Map<String, String> request = kafkaMessage.getRequest();
         log.info("Starting to process get nearby users request for user: {}", authenticatedUser.getId());
 
+        List<NearbyUser> nearbyUsers = List.of();
         try {
+            double[] position;
+            if (request.get("latitude") != null && request.get("longitude") != null) {
+                position = new double[]{Double.parseDouble(request.get("latitude")), Double.parseDouble(request.get("longitude"))};
+                recordPosition(authenticatedUser, position[0], position[1]);
+            } else {
+                position = userPositionStore.findPosition(authenticatedUser.getId())
+                        .orElseThrow(() -> new IllegalStateException("No known position for user " + authenticatedUser.getId()));
+            }
+            double latitude = position[0];
+            double longitude = position[1];
+            double radiusInMeters = request.get("radiusInMeters") != null
+                    ? Double.parseDouble(request.get("radiusInMeters"))
+                    : envConfiguration.getNearbyUsersDefaultRadiusInMeters();
+            int limit = request.get("limit") != null
+                    ? Integer.parseInt(request.get("limit"))
+                    : envConfiguration.getNearbyUsersDefaultLimit();
+
+            nearbyUsers = request.get("limit") != null
+                    ? userPositionStore.findNearest(latitude, longitude, limit, radiusInMeters, authenticatedUser.getId())
+                    : userPositionStore.findWithinRadius(latitude, longitude, radiusInMeters, authenticatedUser.getId(), limit);
+
             authenticatedUser.setLastActivityDate(dateConfiguration.newDate());
 
-            userDaoUtils.save(authenticatedUser);
+            userDaoUtils.saveFields(authenticatedUser, "lastActivityDate");
 
             logUtils.buildAndSaveLog(
                     LogLevel.INFO,
                     "GET_NEARBY_USERS_SUCCESS",
                     kafkaMessage.getIpAddress(),
-                    String.format("User with ID '%s' requested nearby users", authenticatedUser.getId()),
+                    String.format("User with ID '%s' requested nearby users and found %d", authenticatedUser.getId(), nearbyUsers.size()),
                     HttpMethod.GET,
                     "/private/map/nearby-users",
                     "map-service",
                     null,
                     authenticatedUser.getId()
             );
-            log.info("Nearby users successfully retrieved for user: {}", authenticatedUser.getId());
+            log.info("{} nearby users successfully retrieved for user: {}", nearbyUsers.size(), authenticatedUser.getId());
         } catch (Exception e) {
             log.error("Error occurred while processing get nearby users request: {}", e.getMessage());
             logError(e, kafkaMessage, "GET_NEARBY_USERS_ERROR",
                     "Error processing get nearby users request",
                     HttpMethod.GET, "/private/map/nearby-users", authenticatedUser);
         }
+        return nearbyUsers;
+    }
+
+    private void recordPosition(User user, double latitude, double longitude) {
+        NavigationPreferences navigationPreferences = user.getNavigationPreferences();
+        boolean showUsers = navigationPreferences != null && navigationPreferences.isShowUsers();
+        int proximityAlertDistance = navigationPreferences != null ? navigationPreferences.getProximityAlertDistance() : 0;
+
+        unitOfWorkManager.afterCommit(() -> {
+            boolean cellChanged = userPositionStore.update(user.getId(), latitude, longitude, showUsers);
+            proximityAlertEngine.onUserMoved(user.getId(), latitude, longitude, proximityAlertDistance, cellChanged);
+            favoriteLocationIndex.onUserMoved(user, latitude, longitude);
+        });
     }
 
     private void logError(Exception e, KafkaMessage kafkaMessage, String errorCode,
                           String message, HttpMethod httpMethod, String endpoint, User user) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTrace = sw.toString();
-
-        logUtils.buildAndSaveLog(
-                LogLevel.ERROR,
+        logUtils.buildAndSaveErrorLog(
                 errorCode,
                 kafkaMessage.getIpAddress(),
                 message + ": " + e.getMessage(),
                 httpMethod,
                 endpoint,
                 "map-service",
-                stackTrace,
+                e,
                 user != null ? user.getId() : null
         );
         throw new RuntimeException(message + ": " + e.getMessage(), e);
@@ -0,0 +1,188 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.jfr.LogBatchWrittenEvent;
+import com.novus.shared_models.common.Log.Log;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@Component
+public class AsyncLogWriter implements SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final List<LogSink> sinks;
+    private final LogRingBuffer<Log> buffer;
+    private final LogOverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMillis;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AsyncLogWriter(List<LogSink> availableSinks, EnvConfiguration envConfiguration, MeterRegistry meterRegistry) {
+        this.sinks = availableSinks.stream()
+                .filter(sink -> envConfiguration.getLogSinks().contains(sink.name()))
+                .toList();
+        if (sinks.isEmpty()) {
+            throw new IllegalStateException("No log sink matches " + envConfiguration.getLogSinks());
+        }
+        this.buffer = new LogRingBuffer<>(envConfiguration.getLogBufferCapacity());
+        this.overflowPolicy = envConfiguration.getLogOverflowPolicy();
+        this.batchSize = envConfiguration.getLogBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(envConfiguration.getLogFlushIntervalMs());
+        this.shutdownTimeoutMillis = envConfiguration.getLogShutdownTimeoutMs();
+
+        Gauge.builder("map.logs.queue.depth", buffer, LogRingBuffer::size)
+                .description("Number of log entries waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("map.logs.queue.capacity", buffer, LogRingBuffer::capacity)
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("map.logs.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("map.logs.dropped").register(meterRegistry);
+        this.failedCounter = Counter.builder("map.logs.write.failures").register(meterRegistry);
+        this.flushTimer = Timer.builder("map.logs.flush").register(meterRegistry);
+    }
+
+    public void submit(Log logEntry) {
+        if (running && buffer.offer(logEntry)) {
+            return;
+        }
+
+        if (overflowPolicy == LogOverflowPolicy.CALLER_RUNS || !running) {
+            write(List.of(logEntry));
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "async-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMillis);
+            for (LogSink sink : sinks) {
+                Duration remaining = Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis()));
+                if (!sink.awaitIdle(remaining)) {
+                    log.warn("Log sink {} still had requests in flight at shutdown", sink.name());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer.size() > 0) {
+            log.warn("Async log writer stopped with {} log entries still queued", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    private void runWriter() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+
+        while (running || buffer.size() > 0) {
+            Log logEntry = buffer.poll();
+            if (logEntry != null) {
+                if (batch.isEmpty()) {
+                    batchStartedAt = System.nanoTime();
+                }
+                batch.add(logEntry);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+                continue;
+            }
+
+            if (!batch.isEmpty() && (System.nanoTime() - batchStartedAt >= flushIntervalNanos || !running)) {
+                flush(batch);
+                continue;
+            }
+
+            if (running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Log> batch) {
+        write(batch);
+        batch.clear();
+    }
+
+    private void write(List<Log> logs) {
+        long start = System.nanoTime();
+        boolean written = true;
+        try {
+            for (LogSink sink : sinks) {
+                LogBatchWrittenEvent writtenEvent = new LogBatchWrittenEvent();
+                writtenEvent.begin();
+                try {
+                    sink.write(logs);
+                    writtenEvent.succeeded = true;
+                } catch (Exception e) {
+                    written = false;
+                    failedCounter.increment(logs.size());
+                    log.error("Failed to write {} log entries to {}: {}", logs.size(), sink.name(), e.getMessage());
+                } finally {
+                    if (writtenEvent.shouldCommit()) {
+                        writtenEvent.sink = sink.name();
+                        writtenEvent.entries = logs.size();
+                        writtenEvent.commit();
+                    }
+                }
+            }
+            if (written) {
+                writtenCounter.increment(logs.size());
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,288 @@
+package com.novus.map_service.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Log.Log;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class ElasticsearchLogSink implements LogSink {
+
+    private static final String SPILL_FILE_SUFFIX = ".ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI bulkUri;
+    private final String authorization;
+    private final String indexPrefix;
+    private final int maxInFlightRequests;
+    private final Semaphore inFlightRequests;
+    private final long acquireTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final Path spillDirectory;
+    private final AtomicLong spillSequence = new AtomicLong();
+
+    private final Counter indexedCounter;
+    private final Counter failedCounter;
+    private final Counter spilledCounter;
+
+    public ElasticsearchLogSink(EnvConfiguration envConfiguration, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper.copy().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(envConfiguration.getElasticsearchConnectTimeoutMs()))
+                .build();
+        String baseUrl = envConfiguration.getElasticsearchUrl() != null ? envConfiguration.getElasticsearchUrl() : "http://localhost:9200";
+        this.bulkUri = URI.create(baseUrl.replaceAll("/+$", "") + "/_bulk");
+        this.authorization = envConfiguration.getElasticsearchUsername() != null && !envConfiguration.getElasticsearchUsername().isBlank()
+                ? "Basic " + Base64.getEncoder().encodeToString((envConfiguration.getElasticsearchUsername() + ":"
+                + envConfiguration.getElasticsearchPassword()).getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.indexPrefix = envConfiguration.getElasticsearchLogIndexPrefix();
+        this.maxInFlightRequests = envConfiguration.getElasticsearchMaxInFlightRequests();
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        this.acquireTimeoutMillis = envConfiguration.getLogFlushIntervalMs();
+        this.maxRetries = envConfiguration.getElasticsearchMaxRetries();
+        this.retryBackoffMillis = envConfiguration.getElasticsearchRetryBackoffMs();
+        this.spillDirectory = Path.of(envConfiguration.getLogSpillDirectory());
+
+        Gauge.builder("map.logs.elasticsearch.inflight", inFlightRequests,
+                        semaphore -> maxInFlightRequests - semaphore.availablePermits())
+                .register(meterRegistry);
+        this.indexedCounter = Counter.builder("map.logs.elasticsearch.indexed").register(meterRegistry);
+        this.failedCounter = Counter.builder("map.logs.elasticsearch.failed").register(meterRegistry);
+        this.spilledCounter = Counter.builder("map.logs.elasticsearch.spilled").register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "elasticsearch";
+    }
+
+    @Override
+    public void write(List<Log> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        String payload = toNdjson(logs);
+        try {
+            if (!inFlightRequests.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                spill(payload, logs.size());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            spill(payload, logs.size());
+            return;
+        }
+
+        send(payload, logs.size(), 0).whenComplete((ignored, error) -> inFlightRequests.release());
+    }
+
+    @Override
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        if (!inFlightRequests.tryAcquire(maxInFlightRequests, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlightRequests.release(maxInFlightRequests);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.log-spill-replay-interval-ms:30000}")
+    public void replaySpilledBatches() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return;
+        }
+
+        List<Path> spillFiles;
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            spillFiles = files.filter(path -> path.toString().endsWith(SPILL_FILE_SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            log.warn("Unable to list spilled log batches: {}", e.getMessage());
+            return;
+        }
+
+        for (Path spillFile : spillFiles) {
+            try {
+                String payload = Files.readString(spillFile, StandardCharsets.UTF_8);
+                HttpResponse<String> response = httpClient.send(bulkRequest(payload), HttpResponse.BodyHandlers.ofString());
+                if (!isSuccessful(response)) {
+                    log.warn("Elasticsearch still rejecting spilled log batches (status {})", response.statusCode());
+                    return;
+                }
+                String retryPayload = retryableRejections(payload, response.body());
+                if (retryPayload != null) {
+                    spill(retryPayload, documentCount(retryPayload));
+                }
+                Files.delete(spillFile);
+                log.info("Replayed spilled log batch {}", spillFile.getFileName());
+            } catch (IOException e) {
+                log.debug("Elasticsearch still unreachable, keeping spilled log batches: {}", e.getMessage());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<Void> send(String payload, int count, int attempt) {
+        return httpClient.sendAsync(bulkRequest(payload), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error == null && isSuccessful(response)) {
+                        String retryPayload = retryableRejections(payload, response.body());
+                        if (retryPayload == null) {
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        return retry(retryPayload, documentCount(retryPayload), attempt);
+                    }
+
+                    boolean retryable = error != null || response.statusCode() == 429 || response.statusCode() >= 500;
+                    if (!retryable) {
+                        failedCounter.increment(count);
+                        log.error("Elasticsearch refused bulk request of {} logs with status {}", count, response.statusCode());
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    return retry(payload, count, attempt);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private CompletableFuture<Void> retry(String payload, int count, int attempt) {
+        if (attempt >= maxRetries) {
+            spill(payload, count);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long backoff = retryBackoffMillis << Math.min(attempt, 10);
+        return CompletableFuture.supplyAsync(() -> null,
+                        CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> send(payload, count, attempt + 1));
+    }
+
+    private String retryableRejections(String payload, String responseBody) {
+        String[] lines = payload.split("\n");
+        int count = lines.length / 2;
+        JsonNode items;
+        try {
+            JsonNode bulkResponse = objectMapper.readTree(responseBody);
+            if (!bulkResponse.path("errors").asBoolean(false)) {
+                indexedCounter.increment(count);
+                return null;
+            }
+            items = bulkResponse.path("items");
+        } catch (IOException e) {
+            log.warn("Unable to parse Elasticsearch bulk response, assuming {} logs were indexed: {}", count, e.getMessage());
+            indexedCounter.increment(count);
+            return null;
+        }
+
+        StringBuilder retryPayload = new StringBuilder();
+        int indexed = 0;
+        int rejected = 0;
+        String rejectionReason = null;
+        for (int item = 0; item < count && item < items.size(); item++) {
+            JsonNode result = items.get(item).path("index");
+            int status = result.path("status").asInt();
+            if (status >= 200 && status < 300) {
+                indexed++;
+            } else if (status == 429 || status >= 500) {
+                retryPayload.append(lines[2 * item]).append('\n').append(lines[2 * item + 1]).append('\n');
+            } else {
+                rejected++;
+                rejectionReason = result.path("error").path("reason").asText(null);
+            }
+        }
+        indexedCounter.increment(indexed);
+        if (rejected > 0) {
+            failedCounter.increment(rejected);
+            log.error("Elasticsearch rejected {} of {} logs of a bulk request: {}", rejected, count, rejectionReason);
+        }
+        return retryPayload.isEmpty() ? null : retryPayload.toString();
+    }
+
+    private static int documentCount(String payload) {
+        return (int) payload.chars().filter(character -> character == '\n').count() / 2;
+    }
+
+    private HttpRequest bulkRequest(String payload) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(bulkUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8));
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder.build();
+    }
+
+    private boolean isSuccessful(HttpResponse<String> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private String toNdjson(List<Log> logs) {
+        SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy.MM.dd");
+        dayFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        StringBuilder payload = new StringBuilder(logs.size() * 512);
+        for (Log logEntry : logs) {
+            Date timestamp = logEntry.getTimestamp() != null ? logEntry.getTimestamp() : new Date();
+            try {
+                String document = objectMapper.writeValueAsString(logEntry);
+                payload.append("{\"index\":{\"_index\":\"").append(indexPrefix).append('-').append(dayFormat.format(timestamp))
+                        .append("\",\"_id\":\"").append(logEntry.getId()).append("\"}}\n")
+                        .append(document).append('\n');
+            } catch (IOException e) {
+                failedCounter.increment();
+                log.error("Unable to serialize log {} for Elasticsearch: {}", logEntry.getId(), e.getMessage());
+            }
+        }
+        return payload.toString();
+    }
+
+    private void spill(String payload, int count) {
+        try {
+            Files.createDirectories(spillDirectory);
+            Path spillFile = spillDirectory.resolve(String.format("spill-%d-%06d%s",
+                    System.currentTimeMillis(), spillSequence.incrementAndGet(), SPILL_FILE_SUFFIX));
+            Files.writeString(spillFile, payload, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            spilledCounter.increment(count);
+            log.warn("Elasticsearch unavailable, spilled {} logs to {}", count, spillFile);
+        } catch (IOException e) {
+            failedCounter.increment(count);
+            log.error("Unable to spill {} logs to disk: {}", count, e.getMessage());
+        }
+    }
+
+}
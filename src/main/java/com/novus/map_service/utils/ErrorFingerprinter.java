@@ -0,0 +1,129 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.ErrorTraceDaoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class ErrorFingerprinter {
+
+    public static final String TRACE_REFERENCE_PREFIX = "errorTraceId:";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MAX_CAUSE_DEPTH = 5;
+
+    private final ErrorTraceDaoUtils errorTraceDaoUtils;
+    private final DateConfiguration dateConfiguration;
+    private final int topFrames;
+    private final long renderWindowMillis;
+
+    private final Map<String, FingerprintState> states = new ConcurrentHashMap<>();
+
+    public ErrorFingerprinter(ErrorTraceDaoUtils errorTraceDaoUtils, DateConfiguration dateConfiguration,
+                              EnvConfiguration envConfiguration) {
+        this.errorTraceDaoUtils = errorTraceDaoUtils;
+        this.dateConfiguration = dateConfiguration;
+        this.topFrames = envConfiguration.getErrorFingerprintTopFrames();
+        this.renderWindowMillis = envConfiguration.getErrorTraceRenderWindowSeconds() * 1000L;
+    }
+
+    public String record(Throwable error, String service) {
+        String fingerprint = fingerprint(error);
+        FingerprintState state = states.computeIfAbsent(fingerprint,
+                key -> new FingerprintState(service, error.getClass().getName()));
+
+        long now = System.currentTimeMillis();
+        long lastRenderedAt = state.lastRenderedAt.get();
+        if (now - lastRenderedAt >= renderWindowMillis && state.lastRenderedAt.compareAndSet(lastRenderedAt, now)) {
+            long occurrences = 1 + state.pendingOccurrences.getAndSet(0);
+            try {
+                errorTraceDaoUtils.upsertTrace(fingerprint, service, error.getClass().getName(), render(error),
+                        occurrences, dateConfiguration.newDate());
+            } catch (Exception e) {
+                state.pendingOccurrences.addAndGet(occurrences);
+                state.lastRenderedAt.compareAndSet(now, lastRenderedAt);
+                log.warn("Unable to store error trace {}: {}", fingerprint, e.getMessage());
+            }
+        } else {
+            state.pendingOccurrences.incrementAndGet();
+        }
+
+        return fingerprint;
+    }
+
+    public static String traceReference(String fingerprint) {
+        return TRACE_REFERENCE_PREFIX + fingerprint;
+    }
+
+    public String fingerprint(Throwable error) {
+        long hash = FNV_OFFSET_BASIS;
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++, current = current.getCause()) {
+            hash = mix(hash, current.getClass().getName());
+            StackTraceElement[] frames = current.getStackTrace();
+            for (int i = 0; i < Math.min(topFrames, frames.length); i++) {
+                hash = mix(hash, frames[i].getClassName());
+                hash = mix(hash, frames[i].getMethodName());
+                hash = mix(hash, Integer.toString(frames[i].getLineNumber()));
+            }
+        }
+        return String.format("%016x", hash);
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.error-trace-flush-interval-ms:60000}")
+    public void flushOccurrences() {
+        states.forEach((fingerprint, state) -> {
+            long occurrences = state.pendingOccurrences.getAndSet(0);
+            if (occurrences == 0) {
+                return;
+            }
+            try {
+                errorTraceDaoUtils.incrementOccurrences(fingerprint, state.service, state.exceptionType, occurrences,
+                        dateConfiguration.newDate());
+            } catch (Exception e) {
+                state.pendingOccurrences.addAndGet(occurrences);
+                log.warn("Unable to update occurrences of error trace {}: {}", fingerprint, e.getMessage());
+            }
+        });
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= '|';
+        return hash * FNV_PRIME;
+    }
+
+    private static String render(Throwable error) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        error.printStackTrace(pw);
+        return sw.toString();
+    }
+
+    private static final class FingerprintState {
+        private final String service;
+        private final String exceptionType;
+        private final AtomicLong lastRenderedAt = new AtomicLong(Long.MIN_VALUE / 2);
+        private final AtomicLong pendingOccurrences = new AtomicLong();
+
+        private FingerprintState(String service, String exceptionType) {
+            this.service = service;
+            this.exceptionType = exceptionType;
+        }
+    }
+
+}
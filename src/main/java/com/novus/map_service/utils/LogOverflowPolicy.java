@@ -0,0 +1,6 @@
+package com.novus.map_service.utils;
+
+public enum LogOverflowPolicy {
+    DROP,
+    CALLER_RUNS
+}
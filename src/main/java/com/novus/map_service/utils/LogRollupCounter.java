@@ -0,0 +1,76 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.dao.LogDaoUtils;
+import com.novus.map_service.dao.LogHourlyCounts;
+import com.novus.shared_models.common.Log.LogLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LogRollupCounter implements SmartLifecycle {
+
+    private final LogDaoUtils logDaoUtils;
+
+    private final Map<LogHourlyCounts.Bucket, LongAdder> counts = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public void record(String service, String action, LogLevel level, Date timestamp) {
+        counts.computeIfAbsent(LogHourlyCounts.bucketOf(service, action, level, timestamp), bucket -> new LongAdder())
+                .increment();
+    }
+
+    @Scheduled(fixedDelayString = "${supmap.properties.log-flush-interval-ms:1000}")
+    public void flush() {
+        Map<LogHourlyCounts.Bucket, Long> drained = new HashMap<>();
+        counts.forEach((bucket, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                drained.put(bucket, count);
+            }
+        });
+        counts.keySet().stream()
+                .map(LogHourlyCounts.Bucket::hour)
+                .max(Date::compareTo)
+                .ifPresent(latestHour -> counts.entrySet().removeIf(entry ->
+                        entry.getKey().hour().before(latestHour) && entry.getValue().sum() == 0));
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            logDaoUtils.incrementHourlyCounts(drained);
+        } catch (Exception e) {
+            drained.forEach((bucket, count) -> counts.computeIfAbsent(bucket, key -> new LongAdder()).add(count));
+            log.warn("Unable to update hourly log counts, keeping {} buckets for the next flush: {}",
+                    drained.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Log.LogLevel;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LogSampler {
+
+    private final Map<String, Double> ratesByAction = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> countsByAction = new ConcurrentHashMap<>();
+
+    public LogSampler(EnvConfiguration envConfiguration) {
+        envConfiguration.getLogSamplingRates().forEach(this::setRate);
+    }
+
+    public boolean shouldPersist(LogLevel logLevel, String action) {
+        if (logLevel != LogLevel.INFO) {
+            return true;
+        }
+
+        Double rate = ratesByAction.get(action);
+        if (rate == null) {
+            return true;
+        }
+
+        countsByAction.computeIfAbsent(action, key -> new LongAdder()).increment();
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public Map<String, Long> drainCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        countsByAction.forEach((action, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                counts.put(action, count);
+            }
+        });
+        return counts;
+    }
+
+    public Map<String, Double> getRates() {
+        return Map.copyOf(ratesByAction);
+    }
+
+    public void setRate(String action, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sampling rate must be between 0 and 1, got " + rate);
+        }
+        ratesByAction.put(action, rate);
+    }
+
+    public void clearRate(String action) {
+        ratesByAction.remove(action);
+    }
+
+}
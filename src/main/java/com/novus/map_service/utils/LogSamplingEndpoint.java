@@ -0,0 +1,53 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@Endpoint(id = "logsampling")
+public class LogSamplingEndpoint {
+
+    private final LogSampler logSampler;
+    private final Set<String> adjustableActions;
+
+    public LogSamplingEndpoint(LogSampler logSampler, EnvConfiguration envConfiguration) {
+        this.logSampler = logSampler;
+        this.adjustableActions = Set.copyOf(envConfiguration.getLogSamplingAdjustableActions());
+    }
+
+    @ReadOperation
+    public Map<String, Double> rates() {
+        return logSampler.getRates();
+    }
+
+    @WriteOperation
+    public Map<String, Double> updateRate(@Selector String action, double rate) {
+        checkAdjustable(action);
+        logSampler.setRate(action, rate);
+        return logSampler.getRates();
+    }
+
+    @DeleteOperation
+    public Map<String, Double> clearRate(@Selector String action) {
+        checkAdjustable(action);
+        logSampler.clearRate(action);
+        return logSampler.getRates();
+    }
+
+    private void checkAdjustable(String action) {
+        if (!adjustableActions.contains(action)) {
+            throw new InvalidEndpointRequestException("Sampling of " + action + " cannot be changed at runtime",
+                    "Action is not in log-sampling-adjustable-actions");
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.novus.map_service.utils;
+
+import com.novus.shared_models.common.Log.Log;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface LogSink {
+
+    String name();
+
+    void write(List<Log> logs);
+
+    default boolean awaitIdle(Duration timeout) throws InterruptedException {
+        return true;
+    }
+
+}
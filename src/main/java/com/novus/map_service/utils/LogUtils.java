@@ -2,24 +2,50 @@ package com.novus.map_service.utils;
 
 import com.novus.map_service.UuidProvider;
 import com.novus.map_service.configuration.DateConfiguration;
-import com.novus.map_service.dao.LogDaoUtils;
+import com.novus.map_service.dao.UnitOfWorkManager;
+import com.novus.map_service.jfr.LogSubmittedEvent;
+import com.novus.map_service.jfr.MessageEvents;
 import com.novus.shared_models.common.Log.HttpMethod;
 import com.novus.shared_models.common.Log.Log;
 import com.novus.shared_models.common.Log.LogLevel;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+
 @Component
 @RequiredArgsConstructor
 public class LogUtils {
 
     private final UuidProvider uuidProvider;
-    private final LogDaoUtils logDaoUtils;
+    private final AsyncLogWriter asyncLogWriter;
     private final DateConfiguration dateConfiguration;
+    private final ErrorFingerprinter errorFingerprinter;
+    private final LogSampler logSampler;
+    private final LogRollupCounter logRollupCounter;
+    private final UnitOfWorkManager unitOfWorkManager;
 
     public void buildAndSaveLog(LogLevel logLevel, String action, String ipAddress, String message, HttpMethod httpMethod,
                                 String requestPath, String service, String stackTrace, String userId) {
 
+        Date timestamp = dateConfiguration.newDate();
+        if (logLevel == LogLevel.ERROR) {
+            saveLog(logLevel, action, ipAddress, message, httpMethod, requestPath, service, stackTrace, userId, timestamp);
+        } else {
+            unitOfWorkManager.afterCommit(() -> saveLog(logLevel, action, ipAddress, message, httpMethod, requestPath,
+                    service, stackTrace, userId, timestamp));
+        }
+    }
+
+    private void saveLog(LogLevel logLevel, String action, String ipAddress, String message, HttpMethod httpMethod,
+                         String requestPath, String service, String stackTrace, String userId, Date timestamp) {
+        logRollupCounter.record(service, action, logLevel, timestamp);
+        if (!logSampler.shouldPersist(logLevel, action)) {
+            return;
+        }
+
+        LogSubmittedEvent submittedEvent = MessageEvents.begin(new LogSubmittedEvent());
         Log log = Log.builder()
                 .id(uuidProvider.generateUuid())
                 .level(logLevel)
@@ -30,11 +56,35 @@ public class LogUtils {
                 .requestPath(requestPath)
                 .service(service)
                 .stackTrace(stackTrace)
-                .timestamp(dateConfiguration.newDate())
+                .timestamp(timestamp)
                 .userId(userId)
                 .build();
 
-        logDaoUtils.save(log);
+        asyncLogWriter.submit(log);
+        MessageEvents.commit(submittedEvent);
+    }
+
+    public void buildAndSaveErrorLog(String action, String ipAddress, String message, HttpMethod httpMethod,
+                                     String requestPath, String service, Throwable error, String userId) {
+        String fingerprint = errorFingerprinter.record(error, service);
+
+        buildAndSaveLog(LogLevel.ERROR, action, ipAddress, message, httpMethod, requestPath, service,
+                ErrorFingerprinter.traceReference(fingerprint), userId);
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void saveSampledActionCounts() {
+        Date timestamp = dateConfiguration.newDate();
+        Date windowStart = new Date(timestamp.getTime() - 60_000);
+
+        logSampler.drainCounts().forEach((action, count) -> asyncLogWriter.submit(Log.builder()
+                .id(uuidProvider.generateUuid())
+                .level(LogLevel.INFO)
+                .action(action + "_MINUTE_COUNT")
+                .message(String.format("%d '%s' events between %s and %s", count, action, windowStart, timestamp))
+                .service("map-service")
+                .timestamp(timestamp)
+                .build()));
     }
 
 }
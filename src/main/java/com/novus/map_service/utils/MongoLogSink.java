@@ -0,0 +1,26 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.dao.LogDaoUtils;
+import com.novus.shared_models.common.Log.Log;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class MongoLogSink implements LogSink {
+
+    private final LogDaoUtils logDaoUtils;
+
+    @Override
+    public String name() {
+        return "mongo";
+    }
+
+    @Override
+    public void write(List<Log> logs) {
+        logDaoUtils.saveAll(logs);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.novus.map_service.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupTimeReporter implements SmartInitializingSingleton {
+
+    private final EnvConfiguration envConfiguration;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        List<String> jvmArguments = runtime.getInputArguments();
+
+        report.put("aot", AotDetector.useGeneratedArtifacts());
+        report.put("cds", jvmArguments.stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile")));
+        report.put("cdsTraining", jvmArguments.stream().anyMatch(argument -> argument.startsWith("-XX:ArchiveClassesAtExit")));
+        report.put("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        report.put("contextInitializedMs", runtime.getUptime());
+
+        log.info("Application context initialized {} ms after JVM start (AOT: {}, CDS: {})",
+                report.get("contextInitializedMs"), report.get("aot"), report.get("cds"));
+        writeReport();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        report.put("applicationReadyMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        writeReport();
+    }
+
+    private void writeReport() {
+        String reportFile = envConfiguration.getStartupReportFile();
+        if (reportFile == null || reportFile.isBlank()) {
+            return;
+        }
+
+        try {
+            Path path = Path.of(reportFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        } catch (IOException e) {
+            log.warn("Unable to write startup report to {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.novus.map_service;
+
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidProviderTest {
+
+	private final UuidProvider uuidProvider = new UuidProvider();
+
+	@Test
+	void generatesVersion7Uuids() {
+		long before = System.currentTimeMillis();
+		UUID uuid = uuidProvider.nextUuid();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+	}
+
+	@Test
+	void generatesStrictlyIncreasingIdsWithinThread() {
+		String previous = uuidProvider.generateUuid();
+		for (int i = 0; i < 100_000; i++) {
+			String next = uuidProvider.generateUuid();
+			assertThat(next).isGreaterThan(previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	void encodesBinaryInBigEndianOrder() {
+		UUID uuid = uuidProvider.nextUuid();
+		Binary binary = UuidProvider.toBinary(uuid);
+
+		ByteBuffer bytes = ByteBuffer.wrap(binary.getData());
+		assertThat(binary.getType()).isEqualTo((byte) 4);
+		assertThat(new UUID(bytes.getLong(), bytes.getLong())).isEqualTo(uuid);
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.novus.map_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertDaoUtils;
+import com.novus.map_service.dao.LeaseDaoUtils;
+import com.novus.map_service.geo.Geohash;
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.Alert.Alert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AlertArchiveTest {
+
+	private static final long MORNING = Instant.parse("2026-03-01T08:00:00Z").toEpochMilli();
+	private static final long EVENING = Instant.parse("2026-03-01T20:00:00Z").toEpochMilli();
+	private static final long NEXT_DAY = Instant.parse("2026-03-02T08:00:00Z").toEpochMilli();
+
+	@TempDir
+	Path directory;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private EnvConfiguration envConfiguration;
+
+	@BeforeEach
+	void configure() {
+		envConfiguration = new EnvConfiguration();
+		envConfiguration.setAlertArchiveDirectory(directory.toString());
+	}
+
+	@Test
+	void partitionsSegmentsByDayAndRegion() throws IOException {
+		archiver().archive(List.of(
+				alert("paris-morning", 48.8566, 2.3522, MORNING),
+				alert("paris-evening", 48.8570, 2.3525, EVENING),
+				alert("sydney", -33.8688, 151.2093, MORNING),
+				alert("paris-next-day", 48.8566, 2.3522, NEXT_DAY)));
+
+		Path paris = ArchiveLayout.partition(directory, ArchiveLayout.day(MORNING), Geohash.encode(48.8566, 2.3522, 2));
+		Path sydney = ArchiveLayout.partition(directory, ArchiveLayout.day(MORNING), Geohash.encode(-33.8688, 151.2093, 2));
+		Path parisNextDay = ArchiveLayout.partition(directory, ArchiveLayout.day(NEXT_DAY), Geohash.encode(48.8566, 2.3522, 2));
+
+		assertThat(paris).isEqualTo(directory.resolve("2026-03-01").resolve(paris.getFileName()));
+		assertThat(ArchiveLayout.segments(paris)).containsExactly(paris.resolve("segment-000000.jsonl.gz"));
+		assertThat(ArchiveLayout.segments(sydney)).containsExactly(sydney.resolve("segment-000000.jsonl.gz"));
+		assertThat(ArchiveLayout.segments(parisNextDay)).containsExactly(parisNextDay.resolve("segment-000000.jsonl.gz"));
+		assertThat(paris.resolve("segment-000000.idx")).isRegularFile();
+	}
+
+	@Test
+	void indexesEachAppendedBlockWithItsTimeRangeAndPosition() throws IOException {
+		AlertArchiver archiver = archiver();
+		archiver.archive(List.of(
+				alert("first", 48.8566, 2.3522, EVENING),
+				alert("second", 48.8570, 2.3525, MORNING)));
+		archiver.archive(List.of(alert("third", 48.8566, 2.3522, EVENING)));
+
+		Path segment = onlySegment(48.8566, 2.3522, MORNING);
+		Path index = ArchiveLayout.indexOf(segment);
+		List<ArchiveBlock> blocks = ArchiveBlock.readIndex(index);
+
+		assertThat(Files.size(index)).isEqualTo(2L * ArchiveBlock.BYTES);
+		assertThat(blocks).hasSize(2);
+		assertThat(blocks.get(0)).isEqualTo(new ArchiveBlock(MORNING, EVENING, 0, blocks.get(0).length(), 2));
+		assertThat(blocks.get(1)).isEqualTo(new ArchiveBlock(EVENING, EVENING, blocks.get(0).length(), blocks.get(1).length(), 1));
+		assertThat(Files.size(segment)).isEqualTo((long) blocks.get(0).length() + blocks.get(1).length());
+	}
+
+	@Test
+	void encodesBlocksAsFixedSizeLittleEndianEntries() throws IOException {
+		ArchiveBlock block = new ArchiveBlock(MORNING, EVENING, 1234, 567, 8);
+
+		byte[] encoded = new byte[ArchiveBlock.BYTES];
+		block.encode().get(encoded);
+		Path index = directory.resolve("segment-000000.idx");
+		Files.write(index, encoded);
+		Files.write(index, new byte[ArchiveBlock.BYTES - 1], StandardOpenOption.APPEND);
+
+		assertThat(ArchiveBlock.BYTES).isEqualTo(32);
+		assertThat(encoded[16]).isEqualTo((byte) (1234 & 0xff));
+		assertThat(ArchiveBlock.readIndex(index)).containsExactly(block);
+	}
+
+	@Test
+	void rollsOverToANewSegmentOnceTheCurrentOneIsFull() throws IOException {
+		envConfiguration.setAlertArchiveSegmentMaxBytes(1);
+		AlertArchiver archiver = archiver();
+		archiver.archive(List.of(alert("first", 48.8566, 2.3522, MORNING)));
+		archiver.archive(List.of(alert("second", 48.8566, 2.3522, EVENING)));
+
+		Path partition = ArchiveLayout.partition(directory, ArchiveLayout.day(MORNING), Geohash.encode(48.8566, 2.3522, 2));
+		List<Path> segments = ArchiveLayout.segments(partition);
+
+		assertThat(segments).extracting(ArchiveLayout::sequence).containsExactly(0, 1);
+		for (Path segment : segments) {
+			assertThat(ArchiveBlock.readIndex(ArchiveLayout.indexOf(segment))).hasSize(1);
+		}
+		assertThat(scanner().scan(new Date(MORNING), new Date(EVENING), 48, 2, 49, 3))
+				.extracting(Alert::getId).containsExactly("first", "second");
+	}
+
+	@Test
+	void scansOnlyAlertsInsideTheTimeRangeAndBoundingBox() throws IOException {
+		archiver().archive(List.of(
+				alert("paris-morning", 48.8566, 2.3522, MORNING),
+				alert("versailles-morning", 48.8049, 2.1204, MORNING),
+				alert("paris-evening", 48.8570, 2.3525, EVENING),
+				alert("sydney", -33.8688, 151.2093, MORNING),
+				alert("paris-next-day", 48.8566, 2.3522, NEXT_DAY)));
+
+		List<Alert> alerts = scanner().scan(new Date(MORNING), new Date(EVENING), 48.80, 2.30, 48.90, 2.40);
+
+		assertThat(alerts).extracting(Alert::getId).containsExactlyInAnyOrder("paris-morning", "paris-evening");
+		assertThat(alerts.get(0).getLocation().getLatitude()).isBetween(48.85, 48.86);
+	}
+
+	@Test
+	void skipsBlocksOutsideTheRangeWithoutReadingThem() throws IOException {
+		AlertArchiver archiver = archiver();
+		archiver.archive(List.of(alert("morning", 48.8566, 2.3522, MORNING)));
+		archiver.archive(List.of(alert("evening", 48.8566, 2.3522, EVENING)));
+
+		Path segment = onlySegment(48.8566, 2.3522, MORNING);
+		ArchiveBlock morningBlock = ArchiveBlock.readIndex(ArchiveLayout.indexOf(segment)).get(0);
+		try (FileChannel data = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			data.write(ByteBuffer.wrap(new byte[morningBlock.length()]), morningBlock.offset());
+		}
+
+		assertThat(scanner().scan(new Date(EVENING - 1000), new Date(EVENING), 48, 2, 49, 3))
+				.extracting(Alert::getId).containsExactly("evening");
+		assertThatThrownBy(() -> scanner().scan(new Date(MORNING), new Date(EVENING), 48, 2, 49, 3))
+				.isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void stopsAtTheConfiguredNumberOfResults() throws IOException {
+		envConfiguration.setAlertArchiveScanMaxResults(2);
+		archiver().archive(List.of(
+				alert("first", 48.8566, 2.3522, MORNING),
+				alert("second", 48.8566, 2.3522, MORNING + 1),
+				alert("third", 48.8566, 2.3522, MORNING + 2)));
+
+		assertThat(scanner().scan(new Date(MORNING), new Date(EVENING), 48, 2, 49, 3)).hasSize(2);
+	}
+
+	@Test
+	void findsNothingWithoutAnArchiveOrForAnInvertedRange() throws IOException {
+		assertThat(scanner().scan(new Date(EVENING), new Date(MORNING), 48, 2, 49, 3)).isEmpty();
+		assertThat(scanner().scan(new Date(MORNING), new Date(EVENING), 48, 2, 49, 3)).isEmpty();
+
+		envConfiguration.setAlertArchiveDirectory(null);
+		assertThat(scanner().scan(new Date(MORNING), new Date(EVENING), 48, 2, 49, 3)).isEmpty();
+	}
+
+	private AlertArchiver archiver() {
+		return new AlertArchiver(mock(AlertDaoUtils.class), mock(LeaseDaoUtils.class), new DateConfiguration(),
+				objectMapper, envConfiguration, new SimpleMeterRegistry());
+	}
+
+	private AlertArchiveScanner scanner() {
+		return new AlertArchiveScanner(objectMapper, envConfiguration);
+	}
+
+	private Path onlySegment(double latitude, double longitude, long createdAt) throws IOException {
+		Path partition = ArchiveLayout.partition(directory, ArchiveLayout.day(createdAt),
+				Geohash.encode(latitude, longitude, envConfiguration.getAlertArchiveRegionPrecision()));
+		List<Path> segments = ArchiveLayout.segments(partition);
+		assertThat(segments).hasSize(1);
+		return segments.get(0);
+	}
+
+	private static Alert alert(String id, double latitude, double longitude, long createdAt) {
+		return Alert.builder()
+				.id(id)
+				.location(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+				.createdAt(new Date(createdAt))
+				.expiresAt(new Date(createdAt + 600_000))
+				.build();
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.novus.map_service.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteHistoryCursorTest {
+
+	@Test
+	void roundTripsThroughEncoding() {
+		RouteHistoryCursor cursor = new RouteHistoryCursor(new Date(1_700_000_000_123L), "route_with_underscores");
+
+		assertThat(cursor.encode()).isEqualTo("1700000000123_route_with_underscores");
+		assertThat(RouteHistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsRoutesWithoutCreationDate() {
+		RouteHistoryCursor cursor = new RouteHistoryCursor(null, "legacy-route");
+
+		assertThat(cursor.encode()).isEqualTo("_legacy-route");
+		assertThat(RouteHistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void decodesMissingCursorAsFirstPage() {
+		assertThat(RouteHistoryCursor.decode(null)).isNull();
+		assertThat(RouteHistoryCursor.decode(" ")).isNull();
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThatThrownBy(() -> RouteHistoryCursor.decode("route-1")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RouteHistoryCursor.decode("yesterday_route-1")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
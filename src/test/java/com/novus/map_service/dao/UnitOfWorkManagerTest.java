@@ -0,0 +1,107 @@
+package com.novus.map_service.dao;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnitOfWorkManagerTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations stringWrites = mock(BulkOperations.class);
+	private final BulkOperations integerWrites = mock(BulkOperations.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<String> callbacks = new ArrayList<>();
+	private UnitOfWorkManager unitOfWorkManager;
+
+	@BeforeEach
+	void createManager() {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, String.class)).thenReturn(stringWrites);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Integer.class)).thenReturn(integerWrites);
+		when(mongoTemplate.getCollectionName(String.class)).thenReturn("strings");
+		when(mongoTemplate.getCollectionName(Integer.class)).thenReturn("integers");
+		unitOfWorkManager = new UnitOfWorkManager(mongoTemplate, new EnvConfiguration(), meterRegistry);
+	}
+
+	@Test
+	void runsCallbacksAfterASuccessfulCommit() {
+		unitOfWorkManager.begin();
+		unitOfWorkManager.deferSave("a", "first");
+		unitOfWorkManager.afterCommit(() -> callbacks.add("committed"));
+
+		assertThat(callbacks).isEmpty();
+		unitOfWorkManager.commit();
+
+		assertThat(callbacks).containsExactly("committed");
+	}
+
+	@Test
+	void runsCallbacksImmediatelyOutsideAUnitOfWork() {
+		unitOfWorkManager.afterCommit(() -> callbacks.add("immediate"));
+
+		assertThat(callbacks).containsExactly("immediate");
+	}
+
+	@Test
+	void dropsCallbacksOfADiscardedUnitOfWork() {
+		unitOfWorkManager.begin();
+		unitOfWorkManager.afterCommit(() -> callbacks.add("committed"));
+
+		unitOfWorkManager.discard();
+		unitOfWorkManager.commit();
+
+		assertThat(callbacks).isEmpty();
+	}
+
+	@Test
+	void reportsACommitThatFailsAfterAnotherCollectionWasWritten() {
+		when(integerWrites.execute()).thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+		unitOfWorkManager.begin();
+		unitOfWorkManager.deferSave("a", "first");
+		unitOfWorkManager.deferSave("b", 2);
+		unitOfWorkManager.afterCommit(() -> callbacks.add("committed"));
+
+		assertThatThrownBy(unitOfWorkManager::commit)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("partially applied")
+				.hasMessageContaining("strings")
+				.hasCauseInstanceOf(DataAccessResourceFailureException.class);
+		assertThat(meterRegistry.counter("map.unitofwork.partial").count()).isEqualTo(1);
+		assertThat(callbacks).isEmpty();
+	}
+
+	@Test
+	void rethrowsACommitThatFailsBeforeAnyWrite() {
+		when(stringWrites.execute()).thenThrow(new DataAccessResourceFailureException("no primary"));
+		unitOfWorkManager.begin();
+		unitOfWorkManager.deferSave("a", "first");
+		unitOfWorkManager.deferSave("b", 2);
+
+		assertThatThrownBy(unitOfWorkManager::commit).isInstanceOf(DataAccessResourceFailureException.class);
+		assertThat(meterRegistry.counter("map.unitofwork.partial").count()).isZero();
+	}
+
+	@Test
+	void readsPendingSavesBeforeTheStore() {
+		unitOfWorkManager.begin();
+		unitOfWorkManager.deferSave("a", "pending");
+
+		assertThat(unitOfWorkManager.findById(String.class, "a", () -> Optional.of("stored"))).contains("pending");
+		assertThat(unitOfWorkManager.findById(String.class, "b", () -> Optional.of("stored"))).contains("stored");
+		assertThat(unitOfWorkManager.hasPendingWrites(String.class, "a")).isTrue();
+		unitOfWorkManager.discard();
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.novus.map_service.dao;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitOfWorkTest {
+
+	private final UnitOfWork unitOfWork = new UnitOfWork();
+
+	@Test
+	void sumsIncrementsOnTheSameField() {
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("stats.trustScore", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("stats.trustScore", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("stats.trustScore", -3)));
+
+		assertThat(pending("user-1").get("$inc", Document.class)).containsEntry("stats.trustScore", -1);
+	}
+
+	@Test
+	void widensMixedNumericIncrements() {
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("count", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("count", 2L)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("score", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("score", 0.5)));
+
+		Document increments = pending("user-1").get("$inc", Document.class);
+		assertThat(increments.get("count")).isEqualTo(3L);
+		assertThat(increments.get("score")).isEqualTo(1.5);
+	}
+
+	@Test
+	void concatenatesPushEachValues() {
+		unitOfWork.registerFieldUpdate(String.class, "user-1",
+				new Document("$push", new Document("favoriteLocationIds", new Document("$each", List.of("a")))));
+		unitOfWork.registerFieldUpdate(String.class, "user-1",
+				new Document("$push", new Document("favoriteLocationIds", new Document("$each", List.of("b", "c")))));
+
+		Document push = pending("user-1").get("$push", Document.class).get("favoriteLocationIds", Document.class);
+		assertThat(push.getList("$each", String.class)).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void keepsTheLatestSetAndOtherOperators() {
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$set", new Document("lastActivityDate", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$set", new Document("lastActivityDate", 2))
+				.append("$inc", new Document("stats.validatedReports", 1)));
+
+		Document operations = pending("user-1");
+		assertThat(operations.get("$set", Document.class)).containsEntry("lastActivityDate", 2);
+		assertThat(operations.get("$inc", Document.class)).containsEntry("stats.validatedReports", 1);
+	}
+
+	@Test
+	void keepsUpdatesOfDifferentDocumentsApart() {
+		unitOfWork.registerFieldUpdate(String.class, "user-1", new Document("$inc", new Document("count", 1)));
+		unitOfWork.registerFieldUpdate(String.class, "user-2", new Document("$inc", new Document("count", 1)));
+
+		assertThat(pending("user-1").get("$inc", Document.class)).containsEntry("count", 1);
+		assertThat(pending("user-2").get("$inc", Document.class)).containsEntry("count", 1);
+	}
+
+	@Test
+	void deleteDropsPendingSavesAndFieldUpdates() {
+		unitOfWork.registerSave("entity-1", "pending");
+		unitOfWork.registerFieldUpdate(String.class, "entity-1", new Document("$inc", new Document("count", 1)));
+
+		unitOfWork.registerDelete(String.class, "entity-1");
+
+		assertThat(unitOfWork.findSaved(String.class, "entity-1")).isEmpty();
+		assertThat(unitOfWork.getFieldUpdatesByType().get(String.class)).doesNotContainKey("entity-1");
+		assertThat(unitOfWork.isDeleted(String.class, "entity-1")).isTrue();
+		assertThat(unitOfWork.hasWrites(String.class, "entity-1")).isTrue();
+	}
+
+	@Test
+	void saveAfterDeleteCancelsTheDelete() {
+		unitOfWork.registerDelete(String.class, "entity-1");
+
+		unitOfWork.registerSave("entity-1", "restored");
+
+		assertThat(unitOfWork.isDeleted(String.class, "entity-1")).isFalse();
+		assertThat(unitOfWork.findSaved(String.class, "entity-1")).contains("restored");
+	}
+
+	@Test
+	void isEmptyUntilSomethingIsRecorded() {
+		assertThat(unitOfWork.isEmpty()).isTrue();
+
+		unitOfWork.afterCommit(() -> { });
+		assertThat(unitOfWork.isEmpty()).isTrue();
+
+		unitOfWork.defer(() -> { });
+		assertThat(unitOfWork.isEmpty()).isFalse();
+	}
+
+	private Document pending(String id) {
+		return unitOfWork.getFieldUpdatesByType().get(String.class).get(id);
+	}
+
+}
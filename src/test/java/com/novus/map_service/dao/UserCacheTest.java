@@ -0,0 +1,114 @@
+package com.novus.map_service.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.User.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final UserDaoUtils userDaoUtils = mock(UserDaoUtils.class);
+	private UserCache userCache;
+
+	@BeforeEach
+	void createCache() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setUserCacheMaxUsers(2);
+		userCache = new UserCache(userDaoUtils, objectMapper, envConfiguration);
+	}
+
+	@Test
+	void servesCachedUserWhileItsVersionIsCurrent() {
+		when(userDaoUtils.findById("user-1")).thenReturn(Optional.of(user("user-1", 1_000)));
+
+		assertThat(userCache.resolve("user-1", 1_000)).isPresent();
+		assertThat(userCache.resolve("user-1", 1_000)).map(User::getId).contains("user-1");
+		assertThat(userCache.resolve("user-1", 0)).isPresent();
+
+		verify(userDaoUtils, times(1)).findById("user-1");
+	}
+
+	@Test
+	void reloadsWhenTheEnvelopeCarriesANewerVersion() {
+		when(userDaoUtils.findById("user-1"))
+				.thenReturn(Optional.of(user("user-1", 1_000)))
+				.thenReturn(Optional.of(user("user-1", 2_000)));
+
+		userCache.resolve("user-1", 1_000);
+		Optional<User> refreshed = userCache.resolve("user-1", 2_000);
+
+		assertThat(refreshed).map(user -> user.getUpdatedAt().getTime()).contains(2_000L);
+		assertThat(userCache.resolve("user-1", 2_000)).isPresent();
+		verify(userDaoUtils, times(2)).findById("user-1");
+	}
+
+	@Test
+	void reloadsAfterEviction() {
+		when(userDaoUtils.findById("user-1")).thenReturn(Optional.of(user("user-1", 1_000)));
+
+		userCache.resolve("user-1", 1_000);
+		userCache.evict("user-1");
+		userCache.resolve("user-1", 1_000);
+
+		verify(userDaoUtils, times(2)).findById("user-1");
+	}
+
+	@Test
+	void handsOutCopiesSoHandlersCannotMutateTheCachedUser() {
+		when(userDaoUtils.findById("user-1")).thenReturn(Optional.of(user("user-1", 1_000)));
+
+		User first = userCache.resolve("user-1", 1_000).orElseThrow();
+		first.setUpdatedAt(new Date(5_000));
+		User second = userCache.resolve("user-1", 1_000).orElseThrow();
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getUpdatedAt().getTime()).isEqualTo(1_000);
+	}
+
+	@Test
+	void forgetsUsersThatNoLongerExist() {
+		when(userDaoUtils.findById("user-1"))
+				.thenReturn(Optional.of(user("user-1", 1_000)))
+				.thenReturn(Optional.empty());
+
+		userCache.resolve("user-1", 1_000);
+		assertThat(userCache.resolve("user-1", 2_000)).isEmpty();
+		assertThat(userCache.resolve("user-1", 0)).isEmpty();
+
+		verify(userDaoUtils, times(3)).findById("user-1");
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedUserBeyondCapacity() {
+		when(userDaoUtils.findById("user-1")).thenReturn(Optional.of(user("user-1", 1_000)));
+		when(userDaoUtils.findById("user-2")).thenReturn(Optional.of(user("user-2", 1_000)));
+		when(userDaoUtils.findById("user-3")).thenReturn(Optional.of(user("user-3", 1_000)));
+
+		userCache.resolve("user-1", 0);
+		userCache.resolve("user-2", 0);
+		userCache.resolve("user-1", 0);
+		userCache.resolve("user-3", 0);
+		userCache.resolve("user-1", 0);
+		userCache.resolve("user-2", 0);
+
+		verify(userDaoUtils, times(1)).findById("user-1");
+		verify(userDaoUtils, times(2)).findById("user-2");
+	}
+
+	private User user(String id, long updatedAt) {
+		return objectMapper.convertValue(Map.of("id", id, "updatedAt", updatedAt), User.class);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.novus.map_service.geo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertVotes;
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.Alert.Alert;
+import com.novus.shared_models.common.Alert.AlertType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AlertIndexSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	private final DateConfiguration dateConfiguration = new DateConfiguration();
+	private EnvConfiguration envConfiguration;
+	private StateChangelog stateChangelog;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void configure() {
+		envConfiguration = new EnvConfiguration();
+		envConfiguration.setAlertSnapshotFile(directory.resolve("alerts.snapshot").toString());
+		stateChangelog = new StateChangelog(mock(KafkaTemplate.class), new RegionOwnership(envConfiguration),
+				new ObjectMapper(), envConfiguration);
+	}
+
+	@Test
+	void restoresWrittenAlertsWithTheirVotes() {
+		AlertIndex source = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+		source.upsert(alert("alert-1", 48.8566, 2.3522, AlertType.values()[0]), new AlertVotes(3, 1));
+		source.upsert(alert("alerté-2", -33.8688, 151.2093, AlertType.values()[AlertType.values().length - 1]), new AlertVotes(0, 4));
+		long before = dateConfiguration.newDate().getTime();
+		new AlertIndexSnapshot(source, dateConfiguration, envConfiguration).write();
+
+		AlertIndex target = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+		OptionalLong takenAt = new AlertIndexSnapshot(target, dateConfiguration, envConfiguration).restore();
+
+		assertThat(takenAt).isPresent();
+		assertThat(takenAt.getAsLong()).isGreaterThanOrEqualTo(before);
+		AlertColumns expected = source.export();
+		AlertColumns restored = target.export();
+		assertThat(restored.alertIds()).containsExactly(expected.alertIds());
+		assertThat(restored.latitudes()).containsExactly(expected.latitudes());
+		assertThat(restored.longitudes()).containsExactly(expected.longitudes());
+		assertThat(restored.expiresAt()).containsExactly(expected.expiresAt());
+		assertThat(restored.types()).containsExactly(expected.types());
+		assertThat(restored.confirmations()).containsExactly(3, 0);
+		assertThat(restored.rejections()).containsExactly(1, 4);
+	}
+
+	@Test
+	void ignoresCorruptedSnapshot() throws IOException {
+		AlertIndex source = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+		source.upsert(alert("alert-1", 48.8566, 2.3522, AlertType.values()[0]));
+		new AlertIndexSnapshot(source, dateConfiguration, envConfiguration).write();
+
+		Path file = directory.resolve("alerts.snapshot");
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] ^= 0x7F;
+		Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+		AlertIndex target = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+		assertThat(new AlertIndexSnapshot(target, dateConfiguration, envConfiguration).restore()).isEmpty();
+		assertThat(target.size()).isZero();
+	}
+
+	@Test
+	void restoresNothingWithoutSnapshotFile() {
+		AlertIndex target = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+
+		assertThat(new AlertIndexSnapshot(target, dateConfiguration, envConfiguration).restore()).isEmpty();
+	}
+
+	private Alert alert(String id, double latitude, double longitude, AlertType type) {
+		return Alert.builder()
+				.id(id)
+				.type(type)
+				.location(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+				.expiresAt(new Date(dateConfiguration.newDate().getTime() + 600_000))
+				.build();
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.novus.map_service.geo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.AlertVotes;
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.Alert.Alert;
+import com.novus.shared_models.common.Alert.AlertType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AlertIndexTest {
+
+	private final DateConfiguration dateConfiguration = new DateConfiguration();
+	private AlertIndex alertIndex;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void createIndex() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		StateChangelog stateChangelog = new StateChangelog(mock(KafkaTemplate.class),
+				new RegionOwnership(envConfiguration), new ObjectMapper(), envConfiguration);
+		alertIndex = new AlertIndex(dateConfiguration, stateChangelog, envConfiguration);
+	}
+
+	@Test
+	void findsActiveAlertsWithinRadius() {
+		alertIndex.upsert(alert("near", 48.8570, 2.3525, 60_000));
+		alertIndex.upsert(alert("far", 48.9500, 2.3525, 60_000));
+		alertIndex.upsert(alert("expired", 48.8567, 2.3523, -60_000));
+
+		assertThat(alertIndex.findWithinRadius(48.8566, 2.3522, 1000))
+				.extracting(NearbyAlert::alertId).containsExactly("near");
+	}
+
+	@Test
+	void findsAlertsAlongSegmentCorridor() {
+		alertIndex.upsert(alert("on-route", 48.8600, 2.3600, 60_000));
+		alertIndex.upsert(alert("off-route", 48.9000, 2.3600, 60_000));
+
+		assertThat(alertIndex.findAlongSegment(48.8500, 2.3400, 48.8700, 2.3800, 300))
+				.extracting(NearbyAlert::alertId).containsExactly("on-route");
+	}
+
+	@Test
+	void movesUpdatedAlertsAndDropsRemovedOnes() {
+		alertIndex.upsert(alert("alert", 48.8566, 2.3522, 60_000));
+		alertIndex.upsert(alert("alert", 43.2965, 5.3698, 60_000));
+
+		assertThat(alertIndex.findWithinRadius(48.8566, 2.3522, 1000)).isEmpty();
+		assertThat(alertIndex.findWithinRadius(43.2965, 5.3698, 1000)).extracting(NearbyAlert::alertId).containsExactly("alert");
+
+		alertIndex.remove("alert");
+		assertThat(alertIndex.size()).isZero();
+	}
+
+	@Test
+	void keepsVoteTalliesAcrossUpserts() {
+		alertIndex.upsert(alert("alert", 48.8566, 2.3522, 60_000), new AlertVotes(2, 1));
+		alertIndex.recordVote("alert", true);
+		alertIndex.upsert(alert("alert", 48.8566, 2.3522, 120_000));
+
+		AlertColumns columns = alertIndex.export();
+		assertThat(columns.confirmations()).containsExactly(3);
+		assertThat(columns.rejections()).containsExactly(1);
+	}
+
+	@Test
+	void evictsExpiredAlerts() {
+		alertIndex.upsert(alert("active", 48.8566, 2.3522, 60_000));
+		alertIndex.upsert(alert("expired", 48.8566, 2.3522, -1));
+
+		assertThat(alertIndex.evictExpired()).containsExactly("expired");
+		assertThat(alertIndex.size()).isEqualTo(1);
+	}
+
+	private Alert alert(String id, double latitude, double longitude, long expiresInMillis) {
+		return Alert.builder()
+				.id(id)
+				.type(AlertType.values()[0])
+				.location(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+				.expiresAt(new Date(dateConfiguration.newDate().getTime() + expiresInMillis))
+				.build();
+	}
+
+}
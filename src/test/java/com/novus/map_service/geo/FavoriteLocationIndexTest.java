@@ -0,0 +1,148 @@
+package com.novus.map_service.geo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.FavoriteLocationCache;
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.Location.Location;
+import com.novus.shared_models.common.User.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FavoriteLocationIndexTest {
+
+	private static final double HOME_LATITUDE = 48.8566;
+	private static final double HOME_LONGITUDE = 2.3522;
+	private static final double WORK_LATITUDE = 48.8738;
+	private static final double WORK_LONGITUDE = 2.2950;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final FavoriteLocationCache favoriteLocationCache = mock(FavoriteLocationCache.class);
+	private final List<Object> events = new ArrayList<>();
+	private FavoriteLocationIndex index;
+
+	@BeforeEach
+	void createIndex() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setFavoriteGeofenceRadiusInMeters(150);
+		index = new FavoriteLocationIndex(favoriteLocationCache, mock(UserPositionStore.class), events::add,
+				envConfiguration);
+	}
+
+	@Test
+	void publishesEnterOnceAndExitWhenLeaving() {
+		User user = user("user-1", "home", "work");
+		when(favoriteLocationCache.getFavorites(any(User.class))).thenReturn(List.of(
+				location("home", HOME_LATITUDE, HOME_LONGITUDE),
+				location("work", WORK_LATITUDE, WORK_LONGITUDE)));
+
+		index.onUserMoved(user, HOME_LATITUDE + 0.0004, HOME_LONGITUDE);
+		index.onUserMoved(user, HOME_LATITUDE - 0.0004, HOME_LONGITUDE);
+		assertThat(events).containsExactly(event("home", GeofenceTransition.ENTER));
+
+		index.onUserMoved(user, HOME_LATITUDE + 0.01, HOME_LONGITUDE);
+		assertThat(events).containsExactly(
+				event("home", GeofenceTransition.ENTER),
+				event("home", GeofenceTransition.EXIT));
+		verify(favoriteLocationCache, times(1)).getFavorites(any(User.class));
+	}
+
+	@Test
+	void movesBetweenTwoFencesInOneStep() {
+		User user = user("user-1", "home", "work");
+		when(favoriteLocationCache.getFavorites(any(User.class))).thenReturn(List.of(
+				location("home", HOME_LATITUDE, HOME_LONGITUDE),
+				location("work", WORK_LATITUDE, WORK_LONGITUDE)));
+
+		index.onUserMoved(user, HOME_LATITUDE, HOME_LONGITUDE);
+		index.onUserMoved(user, WORK_LATITUDE, WORK_LONGITUDE);
+
+		assertThat(events).containsExactly(
+				event("home", GeofenceTransition.ENTER),
+				event("work", GeofenceTransition.ENTER),
+				event("home", GeofenceTransition.EXIT));
+	}
+
+	@Test
+	void reloadsWhenTheFavoriteListChangesAndKeepsWhereTheUserIs() {
+		when(favoriteLocationCache.getFavorites(any(User.class)))
+				.thenReturn(List.of(location("home", HOME_LATITUDE, HOME_LONGITUDE)))
+				.thenReturn(List.of(
+						location("home", HOME_LATITUDE, HOME_LONGITUDE),
+						location("bakery", HOME_LATITUDE + 0.0005, HOME_LONGITUDE)));
+
+		index.onUserMoved(user("user-1", "home"), HOME_LATITUDE, HOME_LONGITUDE);
+		index.onUserMoved(user("user-1", "home", "bakery"), HOME_LATITUDE, HOME_LONGITUDE);
+
+		assertThat(events).containsExactly(
+				event("home", GeofenceTransition.ENTER),
+				event("bakery", GeofenceTransition.ENTER));
+		verify(favoriteLocationCache, times(2)).getFavorites(any(User.class));
+	}
+
+	@Test
+	void forgetsADeletedLocationWithoutAnExit() {
+		when(favoriteLocationCache.getFavorites(any(User.class))).thenReturn(List.of(
+				location("home", HOME_LATITUDE, HOME_LONGITUDE),
+				location("bakery", HOME_LATITUDE + 0.0005, HOME_LONGITUDE)));
+
+		index.onUserMoved(user("user-1", "home", "bakery"), HOME_LATITUDE, HOME_LONGITUDE);
+		index.onLocationDeleted("user-1", "bakery");
+		index.onUserMoved(user("user-1", "home"), HOME_LATITUDE + 0.01, HOME_LONGITUDE);
+
+		assertThat(events).containsExactly(
+				event("home", GeofenceTransition.ENTER),
+				event("bakery", GeofenceTransition.ENTER),
+				event("home", GeofenceTransition.EXIT));
+		verify(favoriteLocationCache, times(1)).getFavorites(any(User.class));
+	}
+
+	@Test
+	void entersALocationSavedWhileTheUserIsTracked() {
+		when(favoriteLocationCache.getFavorites(any(User.class))).thenReturn(List.of(
+				location("home", HOME_LATITUDE, HOME_LONGITUDE)));
+
+		index.onUserMoved(user("user-1", "home"), WORK_LATITUDE, WORK_LONGITUDE);
+		index.onLocationSaved("user-1", location("work", WORK_LATITUDE, WORK_LONGITUDE));
+		index.onUserMoved(user("user-1", "home", "work"), WORK_LATITUDE, WORK_LONGITUDE);
+
+		assertThat(events).containsExactly(event("work", GeofenceTransition.ENTER));
+		verify(favoriteLocationCache, times(1)).getFavorites(any(User.class));
+	}
+
+	@Test
+	void ignoresUsersWithoutFavorites() {
+		when(favoriteLocationCache.getFavorites(any(User.class))).thenReturn(List.of());
+
+		index.onUserMoved(user("user-1"), HOME_LATITUDE, HOME_LONGITUDE);
+
+		assertThat(events).isEmpty();
+	}
+
+	private User user(String id, String... favoriteLocationIds) {
+		return objectMapper.convertValue(Map.of("id", id, "favoriteLocationIds", List.of(favoriteLocationIds)), User.class);
+	}
+
+	private static Location location(String id, double latitude, double longitude) {
+		return Location.builder()
+				.id(id)
+				.coordinates(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+				.build();
+	}
+
+	private static FavoriteLocationGeofenceEvent event(String locationId, GeofenceTransition transition) {
+		return new FavoriteLocationGeofenceEvent("user-1", locationId, transition);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.novus.map_service.geo;
+
+import com.novus.shared_models.GeoPoint;
+import com.novus.shared_models.common.Location.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FavoriteLocationKdTreeTest {
+
+	@Test
+	void findsSameNearestLocationsAsBruteForce() {
+		Random random = new Random(42);
+		List<Location> favorites = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			favorites.add(location("location-" + i, -60 + random.nextDouble() * 120, -180 + random.nextDouble() * 360));
+		}
+		FavoriteLocationKdTree tree = FavoriteLocationKdTree.build(favorites);
+
+		for (int query = 0; query < 50; query++) {
+			double latitude = -60 + random.nextDouble() * 120;
+			double longitude = -180 + random.nextDouble() * 360;
+
+			List<String> expected = favorites.stream()
+					.sorted(Comparator.comparingDouble(location -> GeoMath.distanceInMeters(latitude, longitude,
+							location.getCoordinates().getLatitude(), location.getCoordinates().getLongitude())))
+					.limit(5)
+					.map(Location::getId)
+					.toList();
+
+			assertThat(tree.findNearest(latitude, longitude, 5))
+					.extracting(nearest -> nearest.location().getId())
+					.containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void returnsResultsSortedByDistance() {
+		FavoriteLocationKdTree tree = FavoriteLocationKdTree.build(List.of(
+				location("far", 48.90, 2.35),
+				location("near", 48.8570, 2.3525),
+				location("middle", 48.87, 2.36)));
+
+		List<NearestFavoriteLocation> nearest = tree.findNearest(48.8566, 2.3522, 3);
+
+		assertThat(nearest).extracting(result -> result.location().getId()).containsExactly("near", "middle", "far");
+		assertThat(nearest).extracting(NearestFavoriteLocation::distanceInMeters).isSorted();
+	}
+
+	@Test
+	void skipsLocationsWithoutCoordinatesAndCapsK() {
+		List<Location> favorites = new ArrayList<>();
+		favorites.add(location("located", 48.8566, 2.3522));
+		favorites.add(Location.builder().id("unlocated").build());
+		FavoriteLocationKdTree tree = FavoriteLocationKdTree.build(favorites);
+
+		assertThat(tree.size()).isEqualTo(1);
+		assertThat(tree.findNearest(0, 0, 10)).extracting(result -> result.location().getId()).containsExactly("located");
+		assertThat(FavoriteLocationKdTree.build(List.of()).findNearest(0, 0, 3)).isEmpty();
+	}
+
+	private static Location location(String id, double latitude, double longitude) {
+		return Location.builder()
+				.id(id)
+				.coordinates(GeoPoint.builder().latitude(latitude).longitude(longitude).build())
+				.build();
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.novus.map_service.geo;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoPartitionerTest {
+
+	@Test
+	void mapsRegionsToContiguousPartitionRanges() {
+		assertThat(GeoPartitioner.partitionOf("0", 32)).isZero();
+		assertThat(GeoPartitioner.partitionOf("u", 32)).isEqualTo(26);
+		assertThat(GeoPartitioner.partitionOf("u09", 32)).isEqualTo(26);
+		assertThat(GeoPartitioner.partitionOf("zzzzzz", 12)).isEqualTo(11);
+
+		int previous = 0;
+		for (long ordinal = 0; ordinal < 1024; ordinal++) {
+			int partition = GeoPartitioner.partitionOf(Geohash.fromOrdinal(ordinal, 2), 7);
+			assertThat(partition).isBetween(previous, 6);
+			previous = partition;
+		}
+	}
+
+	@Test
+	void ignoresPrecisionBeyondPartitioningPrecision() {
+		assertThat(GeoPartitioner.partitionOf("u09tvw0000", 100))
+				.isEqualTo(GeoPartitioner.partitionOf("u09tvw", 100));
+	}
+
+	@Test
+	void recognisesRegionKeys() {
+		assertThat(GeoPartitioner.isRegionKey("geo:u09")).isTrue();
+		assertThat(GeoPartitioner.isRegionKey("geo:")).isFalse();
+		assertThat(GeoPartitioner.isRegionKey("user-1")).isFalse();
+	}
+
+	@Test
+	void routesRequestsWithCoordinatesByRegion() {
+		SpatialRouter router = new SpatialRouter(new EnvConfiguration());
+
+		assertThat(router.routingKey("getNearbyUsers", Map.of("latitude", "48.8566", "longitude", "2.3522", "userId", "user-1")))
+				.isEqualTo("geo:u09");
+		assertThat(router.routingKey("validateUserAlert", Map.of("userId", "user-1"))).isEqualTo("user-1");
+		assertThat(router.routingKey("getMapAdminDashboardData", Map.of())).isEqualTo("getMapAdminDashboardData");
+	}
+
+	@Test
+	void regionOwnershipCoversOnlyAreasInOwnedPartitions() {
+		RegionOwnership regionOwnership = new RegionOwnership(partitionedConfiguration());
+		regionOwnership.assign(32, List.of(26));
+
+		assertThat(regionOwnership.owns(48.8566, 2.3522)).isTrue();
+		assertThat(regionOwnership.owns(40.4168, -3.7038)).isFalse();
+		assertThat(regionOwnership.coversArea(48.84, 2.33, 48.87, 2.37)).isTrue();
+		assertThat(regionOwnership.coversArea(40.0, -10.0, 60.0, 20.0)).isFalse();
+
+		regionOwnership.revoke(List.of(26));
+		assertThat(regionOwnership.coversArea(48.84, 2.33, 48.87, 2.37)).isFalse();
+	}
+
+	@Test
+	void haloPartitionsIncludeNeighbouringRegions() {
+		RegionOwnership regionOwnership = new RegionOwnership(partitionedConfiguration());
+		regionOwnership.assign(32, List.of(26));
+
+		assertThat(regionOwnership.haloPartitionsOf(List.of(26)))
+				.contains(GeoPartitioner.partitionOf("g", 32), GeoPartitioner.partitionOf("s", 32))
+				.doesNotContain(26);
+	}
+
+	private static EnvConfiguration partitionedConfiguration() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setGeoPartitioningEnabled(true);
+		return envConfiguration;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.novus.map_service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class GeohashTest {
+
+	@Test
+	void encodesKnownPoint() {
+		assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+		assertThat(Geohash.encode(48.8566, 2.3522, 3)).isEqualTo("u09");
+	}
+
+	@Test
+	void boundsContainEncodedPoint() {
+		double[] bounds = Geohash.bounds(Geohash.encode(-33.8688, 151.2093, 6));
+
+		assertThat(bounds[0]).isLessThanOrEqualTo(-33.8688);
+		assertThat(bounds[2]).isGreaterThan(-33.8688);
+		assertThat(bounds[1]).isLessThanOrEqualTo(151.2093);
+		assertThat(bounds[3]).isGreaterThan(151.2093);
+		assertThat(bounds[2] - bounds[0]).isCloseTo(Geohash.latitudeSpan(6), offset(1e-9));
+		assertThat(bounds[3] - bounds[1]).isCloseTo(Geohash.longitudeSpan(6), offset(1e-9));
+	}
+
+	@Test
+	void ordinalRoundTrips() {
+		for (String geohash : new String[]{"0", "z", "u09", "s00000", "zzzzzz"}) {
+			assertThat(Geohash.fromOrdinal(Geohash.ordinal(geohash), geohash.length())).isEqualTo(geohash);
+		}
+		assertThat(Geohash.ordinal("10")).isEqualTo(32);
+	}
+
+	@Test
+	void validatesAlphabetAndLength() {
+		assertThat(Geohash.isValid("u09tvw")).isTrue();
+		assertThat(Geohash.isValid("")).isFalse();
+		assertThat(Geohash.isValid("u0a")).isFalse();
+		assertThat(Geohash.isValid("u09tvwu09tvwx")).isFalse();
+		assertThatThrownBy(() -> Geohash.bounds("ai")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void coveringIncludesEveryCellOfArea() {
+		Set<String> cells = Geohash.covering(48.0, 1.0, 50.0, 4.0, 3);
+
+		assertThat(cells).contains(Geohash.encode(48.0, 1.0, 3), Geohash.encode(50.0, 4.0, 3),
+				Geohash.encode(49.0, 2.5, 3), Geohash.encode(48.0, 4.0, 3));
+		assertThat(cells).allMatch(cell -> cell.length() == 3);
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.novus.map_service.geo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.changelog.StateChangelog;
+import com.novus.map_service.configuration.EnvConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UserPositionStoreTest {
+
+	private UserPositionStore store;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void createStore() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setPositionStoreInitialCapacity(16);
+		StateChangelog stateChangelog = new StateChangelog(mock(KafkaTemplate.class),
+				new RegionOwnership(envConfiguration), new ObjectMapper(), envConfiguration);
+		store = new UserPositionStore(stateChangelog, envConfiguration);
+	}
+
+	@Test
+	void findsUsersWithinRadiusAcrossCells() {
+		Random random = new Random(7);
+		List<double[]> positions = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			double[] position = {48.80 + random.nextDouble() * 0.1, 2.30 + random.nextDouble() * 0.1};
+			positions.add(position);
+			store.update("user-" + i, position[0], position[1], true);
+		}
+
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < positions.size(); i++) {
+			if (GeoMath.distanceInMeters(48.85, 2.35, positions.get(i)[0], positions.get(i)[1]) <= 2000) {
+				expected.add("user-" + i);
+			}
+		}
+
+		List<NearbyUser> nearby = store.findWithinRadius(48.85, 2.35, 2000, null, Integer.MAX_VALUE);
+
+		assertThat(nearby).extracting(NearbyUser::userId).containsExactlyInAnyOrderElementsOf(expected);
+		assertThat(nearby).extracting(NearbyUser::distanceInMeters).isSorted();
+	}
+
+	@Test
+	void hidesUserAsSoonAsVisibilityIsTurnedOff() {
+		store.update("requester", 48.8566, 2.3522, true);
+		store.update("other", 48.8570, 2.3525, true);
+
+		assertThat(store.updateVisibility("other", false)).isTrue();
+		assertThat(store.findWithinRadius(48.8566, 2.3522, 500, "requester", 10)).isEmpty();
+
+		assertThat(store.updateVisibility("other", true)).isTrue();
+		assertThat(store.findWithinRadius(48.8566, 2.3522, 500, "requester", 10))
+				.extracting(NearbyUser::userId).containsExactly("other");
+		assertThat(store.updateVisibility("unknown", false)).isFalse();
+	}
+
+	@Test
+	void excludesRequesterAndHiddenUsers() {
+		store.update("requester", 48.8566, 2.3522, true);
+		store.update("visible", 48.8570, 2.3525, true);
+		store.update("hidden", 48.8571, 2.3526, false);
+
+		assertThat(store.findWithinRadius(48.8566, 2.3522, 500, "requester", 10))
+				.extracting(NearbyUser::userId).containsExactly("visible");
+		assertThat(store.findAllWithinRadius(48.8566, 2.3522, 500))
+				.extracting(NearbyUser::userId).containsExactlyInAnyOrder("requester", "visible", "hidden");
+	}
+
+	@Test
+	void movesUsersBetweenCellsAndReusesSlots() {
+		assertThat(store.update("user", 48.8566, 2.3522, true)).isTrue();
+		assertThat(store.update("user", 48.8566, 2.3522, true)).isFalse();
+		assertThat(store.update("user", 43.2965, 5.3698, true)).isTrue();
+
+		assertThat(store.findAllWithinRadius(48.8566, 2.3522, 1000)).isEmpty();
+		assertThat(store.findAllWithinRadius(43.2965, 5.3698, 1000)).extracting(NearbyUser::userId).containsExactly("user");
+
+		store.remove("user");
+		for (int i = 0; i < 40; i++) {
+			store.update("user-" + i, 48.8566, 2.3522 + i * 0.0001, true);
+		}
+		assertThat(store.size()).isEqualTo(40);
+		assertThat(store.findPosition("user")).isEmpty();
+	}
+
+	@Test
+	void findsNearestUsersInDistanceOrder() {
+		for (int i = 1; i <= 20; i++) {
+			store.update("user-" + i, 48.8566 + i * 0.001, 2.3522, true);
+		}
+
+		List<NearbyUser> nearest = store.findNearest(48.8566, 2.3522, 3, 10_000, null);
+
+		assertThat(nearest).extracting(NearbyUser::userId).containsExactly("user-1", "user-2", "user-3");
+		assertThat(nearest).isSortedAccordingTo(Comparator.comparingDouble(NearbyUser::distanceInMeters));
+	}
+
+}
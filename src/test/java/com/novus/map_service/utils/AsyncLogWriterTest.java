@@ -0,0 +1,107 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Log.Log;
+import com.novus.shared_models.common.Log.LogLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncLogWriterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void writesEverySubmittedLogBeforeStopReturns() {
+		RecordingSink sink = new RecordingSink("recording", false);
+		AsyncLogWriter writer = new AsyncLogWriter(List.of(sink), configuration(List.of("recording"), 3), meterRegistry);
+
+		writer.start();
+		for (int i = 0; i < 10; i++) {
+			writer.submit(log("log-" + i));
+		}
+		writer.stop();
+
+		assertThat(sink.written).extracting(Log::getId)
+				.containsExactly("log-0", "log-1", "log-2", "log-3", "log-4", "log-5", "log-6", "log-7", "log-8", "log-9");
+		assertThat(sink.batchSizes).allMatch(size -> size <= 3);
+		assertThat(meterRegistry.counter("map.logs.written").count()).isEqualTo(10);
+	}
+
+	@Test
+	void writesSynchronouslyWhenNotRunning() {
+		RecordingSink sink = new RecordingSink("recording", false);
+		AsyncLogWriter writer = new AsyncLogWriter(List.of(sink), configuration(List.of("recording"), 3), meterRegistry);
+
+		writer.submit(log("log-0"));
+
+		assertThat(sink.written).extracting(Log::getId).containsExactly("log-0");
+	}
+
+	@Test
+	void countsFailedSinkWritesAsFailuresNotAsWritten() {
+		RecordingSink healthy = new RecordingSink("healthy", false);
+		RecordingSink failing = new RecordingSink("failing", true);
+		AsyncLogWriter writer = new AsyncLogWriter(List.of(healthy, failing),
+				configuration(List.of("healthy", "failing"), 3), meterRegistry);
+
+		writer.submit(log("log-0"));
+
+		assertThat(healthy.written).hasSize(1);
+		assertThat(meterRegistry.counter("map.logs.written").count()).isZero();
+		assertThat(meterRegistry.counter("map.logs.write.failures").count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsConfigurationWithoutMatchingSink() {
+		RecordingSink sink = new RecordingSink("recording", false);
+
+		assertThatThrownBy(() -> new AsyncLogWriter(List.of(sink), configuration(List.of("mongo"), 3), meterRegistry))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static EnvConfiguration configuration(List<String> sinks, int batchSize) {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setLogSinks(sinks);
+		envConfiguration.setLogBatchSize(batchSize);
+		envConfiguration.setLogBufferCapacity(64);
+		envConfiguration.setLogFlushIntervalMs(10);
+		return envConfiguration;
+	}
+
+	private static Log log(String id) {
+		return Log.builder().id(id).level(LogLevel.INFO).action("TEST").build();
+	}
+
+	private static final class RecordingSink implements LogSink {
+		private final String name;
+		private final boolean failing;
+		private final List<Log> written = new CopyOnWriteArrayList<>();
+		private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+		private RecordingSink(String name, boolean failing) {
+			this.name = name;
+			this.failing = failing;
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public void write(List<Log> logs) {
+			if (failing) {
+				throw new IllegalStateException("sink unavailable");
+			}
+			batchSizes.add(logs.size());
+			written.addAll(logs);
+		}
+	}
+
+}
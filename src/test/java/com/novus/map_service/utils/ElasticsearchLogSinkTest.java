@@ -0,0 +1,145 @@
+package com.novus.map_service.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Log.Log;
+import com.novus.shared_models.common.Log.LogLevel;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticsearchLogSinkTest {
+
+	@TempDir
+	Path spillDirectory;
+
+	private HttpServer server;
+	private final Queue<String> responses = new ConcurrentLinkedQueue<>();
+	private final List<String> requests = new CopyOnWriteArrayList<>();
+	private volatile int status = 200;
+	private MeterRegistry meterRegistry;
+	private ElasticsearchLogSink sink;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/_bulk", exchange -> {
+			requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			String response = responses.isEmpty() ? "{\"errors\":false,\"items\":[]}" : responses.poll();
+			byte[] body = response.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, body.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			}
+		});
+		server.start();
+
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setElasticsearchUrl("http://localhost:" + server.getAddress().getPort());
+		envConfiguration.setElasticsearchMaxRetries(1);
+		envConfiguration.setElasticsearchRetryBackoffMs(1);
+		envConfiguration.setLogSpillDirectory(spillDirectory.toString());
+		meterRegistry = new SimpleMeterRegistry();
+		sink = new ElasticsearchLogSink(envConfiguration, new ObjectMapper(), meterRegistry);
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void countsFullyAcceptedBulkAsIndexed() throws InterruptedException {
+		sink.write(logs("log-1", "log-2"));
+
+		assertThat(sink.awaitIdle(Duration.ofSeconds(5))).isTrue();
+		assertThat(counter("map.logs.elasticsearch.indexed")).isEqualTo(2);
+		assertThat(counter("map.logs.elasticsearch.failed")).isZero();
+	}
+
+	@Test
+	void retriesOnlyRetryableItemsOfPartiallyRejectedBulk() throws InterruptedException {
+		responses.add("{\"errors\":true,\"items\":["
+				+ "{\"index\":{\"_id\":\"log-1\",\"status\":201}},"
+				+ "{\"index\":{\"_id\":\"log-2\",\"status\":429}},"
+				+ "{\"index\":{\"_id\":\"log-3\",\"status\":400,\"error\":{\"reason\":\"mapper_parsing_exception\"}}}]}");
+		responses.add("{\"errors\":false,\"items\":[{\"index\":{\"_id\":\"log-2\",\"status\":201}}]}");
+
+		sink.write(logs("log-1", "log-2", "log-3"));
+
+		assertThat(sink.awaitIdle(Duration.ofSeconds(5))).isTrue();
+		assertThat(requests).hasSize(2);
+		assertThat(requests.get(1)).contains("\"_id\":\"log-2\"").doesNotContain("log-1", "log-3");
+		assertThat(counter("map.logs.elasticsearch.indexed")).isEqualTo(2);
+		assertThat(counter("map.logs.elasticsearch.failed")).isEqualTo(1);
+	}
+
+	@Test
+	void spillsRetryableItemsOnceRetriesAreExhausted() throws InterruptedException, IOException {
+		String rejected = "{\"errors\":true,\"items\":[{\"index\":{\"_id\":\"log-1\",\"status\":503}}]}";
+		responses.add(rejected);
+		responses.add(rejected);
+
+		sink.write(logs("log-1"));
+
+		assertThat(sink.awaitIdle(Duration.ofSeconds(5))).isTrue();
+		assertThat(counter("map.logs.elasticsearch.spilled")).isEqualTo(1);
+		try (Stream<Path> files = Files.list(spillDirectory)) {
+			List<Path> spillFiles = files.toList();
+			assertThat(spillFiles).hasSize(1);
+			assertThat(Files.readString(spillFiles.get(0))).contains("\"_id\":\"log-1\"");
+		}
+	}
+
+	@Test
+	void replaysSpilledBatchesAndDeletesThem() throws InterruptedException, IOException {
+		status = 503;
+		sink.write(logs("log-1"));
+		assertThat(sink.awaitIdle(Duration.ofSeconds(5))).isTrue();
+
+		status = 200;
+		sink.replaySpilledBatches();
+
+		try (Stream<Path> files = Files.list(spillDirectory)) {
+			assertThat(files).isEmpty();
+		}
+		assertThat(counter("map.logs.elasticsearch.indexed")).isEqualTo(1);
+	}
+
+	private double counter(String name) {
+		return meterRegistry.counter(name).count();
+	}
+
+	private static List<Log> logs(String... ids) {
+		return Stream.of(ids)
+				.map(id -> Log.builder()
+						.id(id)
+						.level(LogLevel.INFO)
+						.action("TEST")
+						.message("message " + id)
+						.timestamp(new Date())
+						.build())
+				.toList();
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.DateConfiguration;
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.map_service.dao.ErrorTraceDaoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ErrorFingerprinterTest {
+
+	private static final String SERVICE = "map-service";
+	private static final String EXCEPTION_TYPE = IllegalStateException.class.getName();
+
+	private final ErrorTraceDaoUtils errorTraceDaoUtils = mock(ErrorTraceDaoUtils.class);
+	private final ErrorFingerprinter errorFingerprinter =
+			new ErrorFingerprinter(errorTraceDaoUtils, new DateConfiguration(), new EnvConfiguration());
+
+	@Test
+	void fingerprintsBySiteAndIgnoresTheMessage() {
+		List<String> fingerprints = Stream.of("alert 1 not found", "alert 2 not found")
+				.map(message -> errorFingerprinter.fingerprint(failure(message)))
+				.toList();
+		String elsewhere = errorFingerprinter.fingerprint(otherFailure());
+
+		assertThat(fingerprints.get(0)).hasSize(16).isEqualTo(fingerprints.get(1));
+		assertThat(elsewhere).isNotEqualTo(fingerprints.get(0));
+	}
+
+	@Test
+	void fingerprintsTheCauseChain() {
+		List<IllegalStateException> failures = Stream.of("boom", "boom").map(ErrorFingerprinterTest::failure).toList();
+		failures.get(1).initCause(otherFailure());
+
+		assertThat(errorFingerprinter.fingerprint(failures.get(1)))
+				.isNotEqualTo(errorFingerprinter.fingerprint(failures.get(0)));
+	}
+
+	@Test
+	void storesTheStackTraceOnceAndCountsRepeatsUntilFlushed() {
+		IllegalStateException error = failure("boom");
+		String fingerprint = errorFingerprinter.record(error, SERVICE);
+		errorFingerprinter.record(error, SERVICE);
+		errorFingerprinter.record(error, SERVICE);
+
+		verify(errorTraceDaoUtils, times(1)).upsertTrace(eq(fingerprint), eq(SERVICE), eq(EXCEPTION_TYPE),
+				contains("boom"), eq(1L), any(Date.class));
+
+		errorFingerprinter.flushOccurrences();
+		errorFingerprinter.flushOccurrences();
+
+		verify(errorTraceDaoUtils, times(1))
+				.incrementOccurrences(eq(fingerprint), eq(SERVICE), eq(EXCEPTION_TYPE), eq(2L), any(Date.class));
+	}
+
+	@Test
+	void retriesTheStackTraceAfterAFailedUpsert() {
+		doThrow(new IllegalStateException("mongo down")).doNothing().when(errorTraceDaoUtils)
+				.upsertTrace(anyString(), anyString(), anyString(), anyString(), anyLong(), any(Date.class));
+		IllegalStateException error = failure("boom");
+
+		String fingerprint = errorFingerprinter.record(error, SERVICE);
+		errorFingerprinter.record(error, SERVICE);
+
+		verify(errorTraceDaoUtils).upsertTrace(eq(fingerprint), eq(SERVICE), eq(EXCEPTION_TYPE), anyString(),
+				eq(2L), any(Date.class));
+		errorFingerprinter.flushOccurrences();
+		verify(errorTraceDaoUtils, never())
+				.incrementOccurrences(anyString(), anyString(), anyString(), anyLong(), any(Date.class));
+	}
+
+	@Test
+	void keepsOccurrencesOfAFailedFlush() {
+		IllegalStateException error = failure("boom");
+		String fingerprint = errorFingerprinter.record(error, SERVICE);
+		errorFingerprinter.record(error, SERVICE);
+		doThrow(new IllegalStateException("mongo down")).doNothing().when(errorTraceDaoUtils)
+				.incrementOccurrences(anyString(), anyString(), anyString(), anyLong(), any(Date.class));
+
+		errorFingerprinter.flushOccurrences();
+		errorFingerprinter.record(error, SERVICE);
+		errorFingerprinter.flushOccurrences();
+
+		verify(errorTraceDaoUtils, times(1))
+				.incrementOccurrences(eq(fingerprint), eq(SERVICE), eq(EXCEPTION_TYPE), eq(2L), any(Date.class));
+	}
+
+	@Test
+	void prefixesTraceReferences() {
+		assertThat(ErrorFingerprinter.traceReference("0123456789abcdef"))
+				.isEqualTo(ErrorFingerprinter.TRACE_REFERENCE_PREFIX + "0123456789abcdef");
+	}
+
+	private static IllegalStateException failure(String message) {
+		return new IllegalStateException(message);
+	}
+
+	private static IllegalStateException otherFailure() {
+		return new IllegalStateException("elsewhere");
+	}
+
+}
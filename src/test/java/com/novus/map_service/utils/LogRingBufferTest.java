@@ -0,0 +1,81 @@
+package com.novus.map_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRingBufferTest {
+
+	@Test
+	void roundsCapacityUpToPowerOfTwo() {
+		assertThat(new LogRingBuffer<String>(1).capacity()).isEqualTo(2);
+		assertThat(new LogRingBuffer<String>(8).capacity()).isEqualTo(8);
+		assertThat(new LogRingBuffer<String>(9).capacity()).isEqualTo(16);
+	}
+
+	@Test
+	void pollsInOfferOrderAndRejectsWhenFull() {
+		LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+		assertThat(buffer.offer(4)).isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+
+		assertThat(buffer.poll()).isEqualTo(0);
+		assertThat(buffer.offer(4)).isTrue();
+		List<Integer> drained = new ArrayList<>();
+		for (Integer element = buffer.poll(); element != null; element = buffer.poll()) {
+			drained.add(element);
+		}
+		assertThat(drained).containsExactly(1, 2, 3, 4);
+		assertThat(buffer.size()).isZero();
+	}
+
+	@Test
+	void deliversEveryElementOnceWithConcurrentProducers() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 20_000;
+		LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1024);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+
+		for (int producer = 0; producer < producers; producer++) {
+			int base = producer * perProducer;
+			executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < perProducer; i++) {
+					while (!buffer.offer(base + i)) {
+						Thread.onSpinWait();
+					}
+				}
+				return null;
+			});
+		}
+
+		start.countDown();
+		Set<Integer> received = new HashSet<>();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+			Integer element = buffer.poll();
+			if (element != null) {
+				assertThat(received.add(element)).isTrue();
+			}
+		}
+		executor.shutdown();
+
+		assertThat(received).hasSize(producers * perProducer);
+		assertThat(buffer.poll()).isNull();
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.novus.map_service.utils;
+
+import com.novus.map_service.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Log.LogLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogSamplerTest {
+
+	private LogSampler logSampler;
+
+	@BeforeEach
+	void createSampler() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.getLogSamplingRates().put("UPDATE_USER_POSITION", 0.0);
+		envConfiguration.getLogSamplingRates().put("GET_NEARBY_ALERTS", 1.0);
+		logSampler = new LogSampler(envConfiguration);
+	}
+
+	@Test
+	void readsConfiguredRates() {
+		assertThat(logSampler.getRates()).containsExactlyInAnyOrderEntriesOf(Map.of(
+				"UPDATE_USER_POSITION", 0.0,
+				"GET_NEARBY_ALERTS", 1.0
+		));
+	}
+
+	@Test
+	void alwaysPersistsErrors() {
+		assertThat(logSampler.shouldPersist(LogLevel.ERROR, "UPDATE_USER_POSITION")).isTrue();
+		assertThat(logSampler.drainCounts()).isEmpty();
+	}
+
+	@Test
+	void persistsActionsWithoutARate() {
+		assertThat(logSampler.shouldPersist(LogLevel.INFO, "CREATE_ALERT")).isTrue();
+		assertThat(logSampler.drainCounts()).isEmpty();
+	}
+
+	@Test
+	void dropsEverythingAtRateZeroAndKeepsEverythingAtRateOne() {
+		for (int i = 0; i < 100; i++) {
+			assertThat(logSampler.shouldPersist(LogLevel.INFO, "UPDATE_USER_POSITION")).isFalse();
+			assertThat(logSampler.shouldPersist(LogLevel.INFO, "GET_NEARBY_ALERTS")).isTrue();
+		}
+	}
+
+	@Test
+	void countsSampledActionsUntilDrained() {
+		logSampler.shouldPersist(LogLevel.INFO, "UPDATE_USER_POSITION");
+		logSampler.shouldPersist(LogLevel.INFO, "UPDATE_USER_POSITION");
+		logSampler.shouldPersist(LogLevel.INFO, "GET_NEARBY_ALERTS");
+
+		assertThat(logSampler.drainCounts()).containsExactlyInAnyOrderEntriesOf(Map.of(
+				"UPDATE_USER_POSITION", 2L,
+				"GET_NEARBY_ALERTS", 1L
+		));
+		assertThat(logSampler.drainCounts()).isEmpty();
+	}
+
+	@Test
+	void rejectsRatesOutsideTheUnitInterval() {
+		assertThatThrownBy(() -> logSampler.setRate("CREATE_ALERT", -0.1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> logSampler.setRate("CREATE_ALERT", 1.1)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(logSampler.getRates()).doesNotContainKey("CREATE_ALERT");
+	}
+
+	@Test
+	void persistsAgainOnceTheRateIsCleared() {
+		logSampler.clearRate("UPDATE_USER_POSITION");
+
+		assertThat(logSampler.shouldPersist(LogLevel.INFO, "UPDATE_USER_POSITION")).isTrue();
+		assertThat(logSampler.drainCounts()).isEmpty();
+	}
+
+}